@@ -7,7 +7,7 @@ threads = []
 def build_application(app):
     threads.append(app)
     print("Building application {}".format(app))
-    os.system("cd {} && gradle build -x test".format(app))
+    os.system("./gradlew build -x test")
     print("Application {} finished building!".format(app))
     threads.remove(app)
 
@@ -21,13 +21,7 @@ def docker_compose_up():
 def build_all_applications():
     print("Starting to build applications!")
     threading.Thread(target=build_application,
-                     args={"order-service"}).start()
-    threading.Thread(target=build_application,
-                     args={"product-validation-service"}).start()
-    threading.Thread(target=build_application,
-                     args={"payment-service"}).start()
-    threading.Thread(target=build_application,
-                     args={"inventory-service"}).start()
+                     args={"saga-coreografado"}).start()
 
 
 def remove_remaining_containers():
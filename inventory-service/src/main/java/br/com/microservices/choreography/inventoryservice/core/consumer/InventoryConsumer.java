@@ -1,40 +1,110 @@
 package br.com.microservices.choreography.inventoryservice.core.consumer;
 
 import br.com.microservices.choreography.inventoryservice.core.service.InventoryService;
-import br.com.microservices.choreography.inventoryservice.core.utils.JsonUtil;
+import br.com.microservices.choreography.sagacore.config.kafka.RetryTopicResolver;
+import br.com.microservices.choreography.sagacore.core.codec.EventCodecException;
+import br.com.microservices.choreography.sagacore.core.codec.EventCodecRegistry;
+import br.com.microservices.choreography.sagacore.core.dto.Event;
+import br.com.microservices.choreography.sagacore.core.dto.SagaMetadata;
+import br.com.microservices.choreography.sagacore.core.enums.ESagaLogStage;
+import br.com.microservices.choreography.sagacore.core.logging.SagaLogger;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Slf4j
 @Component
 public class InventoryConsumer {
 
-    private final JsonUtil jsonUtil;
+    private final EventCodecRegistry<Event> codecRegistry;
     private final InventoryService inventoryService;
+    private final RetryTopicResolver retryTopicResolver;
+    private final DeadLetterPublishingRecoverer deadLetterPublishingRecoverer;
+    private final SagaLogger sagaLogger;
+
+    @Value("${spring.kafka.topic.inventory-success}")
+    private String inventorySuccessTopic;
 
-    public InventoryConsumer(JsonUtil jsonUtil, InventoryService inventoryService) {
-        this.jsonUtil = jsonUtil;
+    public InventoryConsumer(EventCodecRegistry<Event> codecRegistry,
+                             InventoryService inventoryService,
+                             RetryTopicResolver retryTopicResolver,
+                             DeadLetterPublishingRecoverer deadLetterPublishingRecoverer,
+                             SagaLogger sagaLogger) {
+        this.codecRegistry = codecRegistry;
         this.inventoryService = inventoryService;
+        this.retryTopicResolver = retryTopicResolver;
+        this.deadLetterPublishingRecoverer = deadLetterPublishingRecoverer;
+        this.sagaLogger = sagaLogger;
+    }
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.inventory-success}",
+            autoStartup = "#{!${spring.kafka.batch-listener.enabled}}"
+    )
+    public void consumeSuccessEvent(ConsumerRecord<String, byte[]> record) {
+        processSuccessEvent(record, SagaMetadata.from(record));
     }
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
-            topics = "${spring.kafka.topic.inventory-success}"
+            topics = "${spring.kafka.topic.inventory-success}",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            autoStartup = "${spring.kafka.batch-listener.enabled}"
     )
-    public void consumeSuccessEvent(String payload) {
-        log.info("Receiving success event {} from inventory-success topic", payload);
-        var event = jsonUtil.toEvent(payload);
-        inventoryService.updateInventory(event);
+    public void consumeSuccessEvents(List<ConsumerRecord<String, byte[]>> records) {
+        log.info("Receiving {} success events from inventory-success topic", records.size());
+        var decoded = new ArrayList<ConsumerRecord<String, byte[]>>(records.size());
+        var events = new ArrayList<Event>(records.size());
+        for (var record : records) {
+            try {
+                events.add(codecRegistry.decode(record.value()));
+                decoded.add(record);
+            } catch (EventCodecException ex) {
+                deadLetterPublishingRecoverer.accept(record, ex);
+            }
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+        // Failed sends are recovered one by one, so the rest of the batch is never redelivered.
+        inventoryService.updateInventory(events).forEach(index -> deadLetterPublishingRecoverer.accept(
+                decoded.get(index),
+                new IllegalStateException("Could not send the next hop for the event from inventory-success topic")));
     }
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.inventory-fail}"
     )
-    public void consumeFailEvent(String payload) {
-        log.info("Receiving rollback event {} from inventory-success topic", payload);
-        var event = jsonUtil.toEvent(payload);
-        inventoryService.rollbackInventory(event);
+    public void consumeFailEvent(ConsumerRecord<String, byte[]> record) {
+        sagaLogger.info(ESagaLogStage.CONSUME, SagaMetadata.from(record),
+                "Receiving rollback event from {} topic", record.topic());
+        inventoryService.rollbackInventory(codecRegistry.decode(record.value()));
+    }
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "#{retryTopicResolver.retryTopics}",
+            containerFactory = "retryKafkaListenerContainerFactory"
+    )
+    public void consumeRetryEvent(ConsumerRecord<String, byte[]> record) {
+        retryTopicResolver.awaitRetry(record);
+        if (inventorySuccessTopic.equals(retryTopicResolver.getOriginalTopic(record))) {
+            processSuccessEvent(record, SagaMetadata.from(record));
+        } else {
+            consumeFailEvent(record);
+        }
+    }
+
+    private void processSuccessEvent(ConsumerRecord<String, byte[]> record, SagaMetadata metadata) {
+        sagaLogger.info(ESagaLogStage.CONSUME, metadata, "Receiving success event from {} topic", record.topic());
+        inventoryService.updateInventory(codecRegistry.decode(record.value()));
     }
 }
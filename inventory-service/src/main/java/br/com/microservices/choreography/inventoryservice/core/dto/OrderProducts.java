@@ -1,15 +0,0 @@
-package br.com.microservices.choreography.inventoryservice.core.dto;
-
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-@Data
-@AllArgsConstructor
-@NoArgsConstructor
-public class OrderProducts {
-
-    private Product product;
-    private int quantity;
-
-}
@@ -1,12 +1,22 @@
 package br.com.microservices.choreography.inventoryservice.core.repository;
 
 import br.com.microservices.choreography.inventoryservice.core.model.Inventory;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface InventoryRepository extends JpaRepository<Inventory, Integer> {
 
     Optional<Inventory> findByProductCode(String productCode);
 
+    List<Inventory> findByProductCodeIn(Collection<String> productCodes);
+
+    // Rows are locked in productCode order, so two orders sharing products never wait on each other in a cycle.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Inventory> findLockedByProductCodeInOrderByProductCode(Collection<String> productCodes);
+
 }
@@ -1,14 +1,28 @@
 package br.com.microservices.choreography.inventoryservice.core.repository;
 
 import br.com.microservices.choreography.inventoryservice.core.model.OrderInventory;
+import br.com.microservices.choreography.sagacore.core.idempotency.SagaKeyRepository;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface OrderInvetoryRepository extends JpaRepository<OrderInventory, Integer> {
+public interface OrderInvetoryRepository extends JpaRepository<OrderInventory, Integer>, SagaKeyRepository {
 
     Boolean existsByOrderIdAndTransactionId(String orderId, String transactionId);
 
+    boolean existsByOrderIdAndTransactionIdAndRolledBackTrue(String orderId, String transactionId);
+
     List<OrderInventory> findByOrderIdAndTransactionId(String orderId, String transactionId);
 
+    List<OrderInventory> findByTransactionIdIn(Collection<String> transactionIds);
+
+    @Override
+    @Query("select distinct concat(e.orderId, ':', e.transactionId) from OrderInventory e where e.createdAt >= :createdAt")
+    Stream<String> findSagaKeysCreatedSince(@Param("createdAt") LocalDateTime createdAt);
+
 }
@@ -1,13 +1,22 @@
 package br.com.microservices.choreography.inventoryservice.core.saga;
 
-import br.com.microservices.choreography.inventoryservice.core.dto.Event;
-import br.com.microservices.choreography.inventoryservice.core.producer.KafkaProducer;
-import br.com.microservices.choreography.inventoryservice.core.utils.JsonUtil;
-import lombok.extern.slf4j.Slf4j;
+import br.com.microservices.choreography.sagacore.core.dto.Event;
+import br.com.microservices.choreography.sagacore.core.dto.SagaMetadata;
+import br.com.microservices.choreography.sagacore.core.enums.ESagaLogStage;
+import br.com.microservices.choreography.sagacore.core.logging.SagaLogger;
+import br.com.microservices.choreography.sagacore.core.producer.PendingSends;
+import br.com.microservices.choreography.sagacore.core.producer.SagaHistoryPublisher;
+import br.com.microservices.choreography.sagacore.core.producer.SagaProducer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
-@Slf4j
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @Component
 public class SagaExecutionController {
 
@@ -20,45 +29,71 @@ public class SagaExecutionController {
     @Value("${spring.kafka.topic.payment-fail}")
     private String paymentFailTopic;
 
-    private final JsonUtil jsonUtil;
-    private final KafkaProducer producer;
+    private final SagaProducer<Event> producer;
+    private final SagaHistoryPublisher historyPublisher;
+    private final SagaLogger sagaLogger;
 
-    public SagaExecutionController(JsonUtil jsonUtil, KafkaProducer producer) {
-        this.jsonUtil = jsonUtil;
+    public SagaExecutionController(SagaProducer<Event> producer,
+                                   SagaHistoryPublisher historyPublisher,
+                                   SagaLogger sagaLogger) {
         this.producer = producer;
+        this.historyPublisher = historyPublisher;
+        this.sagaLogger = sagaLogger;
     }
 
+    // The next hop's send is awaited, together with the rest of the poll, before the offsets are
+    // committed; a failed send fails the record into the retry and dead-letter topics instead of
+    // being lost behind a committed offset.
     public void handleSaga(Event event) {
-        switch (event.getStatus()) {
+        PendingSends.await(dispatch(event));
+    }
+
+    // Batch path: every send is started before any is awaited, so the batch still pipelines; returns the
+    // positions of the events whose send failed.
+    public Set<Integer> handleSagas(List<Event> events) {
+        var sends = events.stream().map(this::dispatch).toList();
+        var failed = new HashSet<Integer>();
+        for (var index = 0; index < sends.size(); index++) {
+            try {
+                sends.get(index).join();
+            } catch (CompletionException ex) {
+                failed.add(index);
+            }
+        }
+        return failed;
+    }
+
+    private CompletableFuture<SendResult<String, byte[]>> dispatch(Event event) {
+        return switch (event.getStatus()) {
             case SUCCESS -> handleSuccess(event);
             case ROLLBACK_PENDING -> handleRollbackPending(event);
             case FAIL -> handleFail(event);
-        }
+        };
     }
 
-    private void handleSuccess(Event event) {
-        log.info("### CURRENT SAGA: {} | SUCCESS | NEXT TOPIC {} | {}",
-                event.getSource(), notifyEndingTopic, event.getSagaId());
+    private CompletableFuture<SendResult<String, byte[]>> handleSuccess(Event event) {
+        sagaLogger.info(ESagaLogStage.TRANSITION, SagaMetadata.from(event),
+                "### CURRENT SAGA: SUCCESS | NEXT TOPIC {}", notifyEndingTopic);
 
-        sendEvent(event, notifyEndingTopic);
+        return sendEvent(event, notifyEndingTopic);
     }
 
-    private void handleRollbackPending(Event event) {
-        log.info("### CURRENT SAGA: {} | SENDING TO ROLLBACK CURRENT SERVICE | NEXT TOPIC {} | {}",
-                event.getSource(), inventoryFailTopic, event.getSagaId());
+    private CompletableFuture<SendResult<String, byte[]>> handleRollbackPending(Event event) {
+        sagaLogger.info(ESagaLogStage.TRANSITION, SagaMetadata.from(event),
+                "### CURRENT SAGA: SENDING TO ROLLBACK CURRENT SERVICE | NEXT TOPIC {}", inventoryFailTopic);
 
-        sendEvent(event, inventoryFailTopic);
+        return sendEvent(event, inventoryFailTopic);
     }
 
-    private void handleFail(Event event) {
-        log.info("### CURRENT SAGA: {} | FAIL | NEXT TOPIC {} | {}",
-                event.getSource(), paymentFailTopic, event.getSagaId());
+    private CompletableFuture<SendResult<String, byte[]>> handleFail(Event event) {
+        sagaLogger.info(ESagaLogStage.TRANSITION, SagaMetadata.from(event),
+                "### CURRENT SAGA: FAIL | NEXT TOPIC {}", paymentFailTopic);
 
-        sendEvent(event, paymentFailTopic);
+        return sendEvent(event, paymentFailTopic);
     }
 
-    private void sendEvent(Event event, String topic) {
-        String json = jsonUtil.toJson(event);
-        producer.sendEvent(json, topic);
+    private CompletableFuture<SendResult<String, byte[]>> sendEvent(Event event, String topic) {
+        historyPublisher.publishDelta(event);
+        return producer.sendEvent(event, topic);
     }
 }
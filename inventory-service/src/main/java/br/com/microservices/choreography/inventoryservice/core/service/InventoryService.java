@@ -1,19 +1,28 @@
 package br.com.microservices.choreography.inventoryservice.core.service;
 
 import br.com.microservices.choreography.inventoryservice.config.exception.ValidationException;
-import br.com.microservices.choreography.inventoryservice.core.dto.Event;
-import br.com.microservices.choreography.inventoryservice.core.dto.Order;
-import br.com.microservices.choreography.inventoryservice.core.dto.OrderProducts;
-import br.com.microservices.choreography.inventoryservice.core.enums.ESagaStatus;
 import br.com.microservices.choreography.inventoryservice.core.model.Inventory;
 import br.com.microservices.choreography.inventoryservice.core.model.OrderInventory;
-import br.com.microservices.choreography.inventoryservice.core.producer.KafkaProducer;
 import br.com.microservices.choreography.inventoryservice.core.repository.InventoryRepository;
 import br.com.microservices.choreography.inventoryservice.core.repository.OrderInvetoryRepository;
 import br.com.microservices.choreography.inventoryservice.core.saga.SagaExecutionController;
-import br.com.microservices.choreography.inventoryservice.core.utils.JsonUtil;
+import br.com.microservices.choreography.sagacore.core.dto.Event;
+import br.com.microservices.choreography.sagacore.core.dto.Order;
+import br.com.microservices.choreography.sagacore.core.dto.OrderProducts;
+import br.com.microservices.choreography.sagacore.core.dto.SagaMetadata;
+import br.com.microservices.choreography.sagacore.core.enums.ESagaLogStage;
+import br.com.microservices.choreography.sagacore.core.enums.ESagaStatus;
+import br.com.microservices.choreography.sagacore.core.idempotency.IdempotencyFilter;
+import br.com.microservices.choreography.sagacore.core.logging.SagaLogger;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 
 @Slf4j
 @Service
@@ -24,25 +33,205 @@ public class InventoryService {
     private final SagaExecutionController sagaExecutionController;
     private final InventoryRepository inventoryRepository;
     private final OrderInvetoryRepository orderInventoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final IdempotencyFilter idempotencyFilter;
+    private final SagaLogger sagaLogger;
 
-    public InventoryService(SagaExecutionController sagaExecutionController, InventoryRepository inventoryRepository, OrderInvetoryRepository orderInventoryRepository) {
+    public InventoryService(SagaExecutionController sagaExecutionController,
+                            InventoryRepository inventoryRepository,
+                            OrderInvetoryRepository orderInventoryRepository,
+                            TransactionTemplate transactionTemplate,
+                            IdempotencyFilter idempotencyFilter,
+                            SagaLogger sagaLogger) {
         this.sagaExecutionController = sagaExecutionController;
         this.inventoryRepository = inventoryRepository;
         this.orderInventoryRepository = orderInventoryRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.idempotencyFilter = idempotencyFilter;
+        this.sagaLogger = sagaLogger;
     }
 
+    // A redelivered event (e.g. its next hop failed to send) finds its reservation already stored and
+    // publishes the same next hop again, instead of failing the saga as a duplicate. Reservations
+    // already returned belong to a rolled back saga, so their forward events are dropped.
     public void updateInventory(Event event) {
+        if (isRolledBack(event)) {
+            dropRolledBack(event);
+            return;
+        }
+        processInventory(event);
+        sagaExecutionController.handleSaga(event);
+    }
+
+    // Returns the positions of the events whose next hop could not be sent.
+    public Set<Integer> updateInventory(List<Event> events) {
+        Set<Event> rolledBack = Collections.newSetFromMap(new IdentityHashMap<>());
+        Map<Event, String> failures;
         try {
-            checkCurrentValidation(event);
-            createOrderInventory(event);
-            updateInventory(event.getPayload());
-            event.addHistorySuccess(CURRENT_SOURCE);
+            failures = transactionTemplate.execute(status -> updateInventoryBatch(events, rolledBack));
+        } catch (Exception ex) {
+            log.error("Error trying to update inventory in batch, retrying each event on its own: ", ex);
+            rolledBack.clear();
+            events.forEach(event -> {
+                if (isRolledBack(event)) {
+                    rolledBack.add(event);
+                } else {
+                    processInventory(event);
+                }
+            });
+            return handleSagas(events, rolledBack);
+        }
 
-            sagaExecutionController.handleSaga(event);
+        events.forEach(event -> {
+            if (rolledBack.contains(event)) {
+                return;
+            }
+            if (failures.containsKey(event)) {
+                event.addHistoryFail(CURRENT_SOURCE, "Fail while doing inventory update: ".concat(failures.get(event)));
+            } else {
+                idempotencyFilter.markProcessed(event.getPayload().getId(), event.getTransactionId());
+                event.addHistorySuccess(CURRENT_SOURCE, "Inventory updated successfully!");
+            }
+        });
+        return handleSagas(events, rolledBack);
+    }
+
+    // Sends every event but the rolled back ones; the failed positions still index events.
+    private Set<Integer> handleSagas(List<Event> events, Set<Event> rolledBack) {
+        List<Integer> positions = new ArrayList<>(events.size());
+        List<Event> sends = new ArrayList<>(events.size());
+        for (var index = 0; index < events.size(); index++) {
+            var event = events.get(index);
+            if (rolledBack.contains(event)) {
+                dropRolledBack(event);
+            } else {
+                positions.add(index);
+                sends.add(event);
+            }
+        }
+
+        return sagaExecutionController
+                .handleSagas(sends)
+                .stream()
+                .map(positions::get)
+                .collect(toSet());
+    }
+
+    // The inventory rows of the order stay locked from the read of available until the commit, so
+    // concurrent orders for the same products (now on different partitions) cannot both pass the
+    // stock check against the same value.
+    private void processInventory(Event event) {
+        try {
+            if (!isProcessed(event.getPayload().getId(), event.getTransactionId())) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    lockInventories(event.getPayload());
+                    createOrderInventory(event);
+                    updateInventory(event.getPayload());
+                });
+                idempotencyFilter.markProcessed(event.getPayload().getId(), event.getTransactionId());
+            }
+            event.addHistorySuccess(CURRENT_SOURCE, "Inventory updated successfully!");
         } catch (Exception ex) {
-            log.error("Error trying to update inventory: ", ex);
-            event.addHistoryFail(ex.getMessage(), CURRENT_SOURCE);
+            sagaLogger.failure(ESagaLogStage.PROCESS, SagaMetadata.from(event), event, ex,
+                    "Error trying to update inventory: {}", ex.getMessage());
+            event.addHistoryFail(CURRENT_SOURCE, "Fail while doing inventory update: ".concat(ex.getMessage()));
+        }
+    }
+
+    // Events of sagas already reserved (earlier, or earlier in this batch) are left as they are and
+    // succeed again; the ones whose reservation was returned are added to rolledBack.
+    private Map<Event, String> updateInventoryBatch(List<Event> events, Set<Event> rolledBack) {
+        Map<Event, String> failures = new IdentityHashMap<>();
+        Map<String, Inventory> inventories = findInventoriesByProductCodes(events);
+        Map<String, Boolean> processedSagas = findProcessedSagas(events);
+        List<OrderInventory> orderInventories = new ArrayList<>();
+
+        events.forEach(event -> {
+            try {
+                var rolledBackSaga = processedSagas.putIfAbsent(getSagaKey(event.getPayload().getId(), event.getTransactionId()), false);
+                if (Boolean.TRUE.equals(rolledBackSaga)) {
+                    rolledBack.add(event);
+                }
+                if (rolledBackSaga != null) {
+                    return;
+                }
+                orderInventories.addAll(reserveInventory(event, inventories));
+            } catch (Exception ex) {
+                log.error("Error trying to update inventory for order {}: ", event.getPayload().getId(), ex);
+                failures.put(event, ex.getMessage());
+            }
+        });
+
+        orderInventoryRepository.saveAll(orderInventories);
+        inventoryRepository.saveAll(inventories.values());
+        return failures;
+    }
+
+    private List<OrderInventory> reserveInventory(Event event, Map<String, Inventory> inventories) {
+        Map<String, Integer> available = new HashMap<>();
+        List<OrderInventory> orderInventories = new ArrayList<>();
+
+        event.getPayload()
+                .getProducts()
+                .forEach(product -> {
+                    String productCode = product.getProduct().getCode();
+                    Inventory inventory = Optional.ofNullable(inventories.get(productCode))
+                            .orElseThrow(() -> new ValidationException("Inventory not found by informed product"));
+                    orderInventories.add(createOrderInventory(event, product, inventory));
+
+                    int current = available.getOrDefault(productCode, inventory.getAvailable());
+                    checkInventory(current, product.getQuantity());
+                    available.put(productCode, current - product.getQuantity());
+                });
+
+        available.forEach((productCode, quantity) -> inventories.get(productCode).setAvailable(quantity));
+        return orderInventories;
+    }
+
+    private Map<String, Inventory> findInventoriesByProductCodes(List<Event> events) {
+        Set<String> productCodes = events
+                .stream()
+                .flatMap(event -> event.getPayload().getProducts().stream())
+                .map(product -> product.getProduct().getCode())
+                .collect(toSet());
+
+        return inventoryRepository
+                .findLockedByProductCodeInOrderByProductCode(productCodes)
+                .stream()
+                .collect(toMap(Inventory::getProductCode, identity()));
+    }
+
+    private void lockInventories(Order order) {
+        Set<String> productCodes = order
+                .getProducts()
+                .stream()
+                .map(product -> product.getProduct().getCode())
+                .collect(toSet());
+
+        inventoryRepository.findLockedByProductCodeInOrderByProductCode(productCodes);
+    }
+
+    // Saga key of every stored reservation, mapped to whether it was already returned.
+    private Map<String, Boolean> findProcessedSagas(List<Event> events) {
+        Set<String> transactionIds = events
+                .stream()
+                .filter(event -> idempotencyFilter.mightBeProcessed(event.getPayload().getId(), event.getTransactionId()))
+                .map(Event::getTransactionId)
+                .collect(toSet());
+
+        if (transactionIds.isEmpty()) {
+            return new HashMap<>();
         }
+
+        return orderInventoryRepository
+                .findByTransactionIdIn(transactionIds)
+                .stream()
+                .collect(toMap(orderInventory -> getSagaKey(orderInventory.getOrderId(), orderInventory.getTransactionId()),
+                        OrderInventory::isRolledBack, Boolean::logicalOr, HashMap::new));
+    }
+
+    private String getSagaKey(String orderId, String transactionId) {
+        return orderId.concat(":").concat(transactionId);
     }
 
     private void updateInventory(Order order) {
@@ -61,10 +250,19 @@ public class InventoryService {
         }
     }
 
-    private void checkCurrentValidation(Event event) {
-        if (orderInventoryRepository.existsByOrderIdAndTransactionId(event.getPayload().getId(), event.getTransactionId())) {
-            throw new ValidationException("There's another transactionId for this validation.");
-        }
+    public boolean isProcessed(String orderId, String transactionId) {
+        return idempotencyFilter.isProcessed(orderId, transactionId,
+                () -> orderInventoryRepository.existsByOrderIdAndTransactionId(orderId, transactionId));
+    }
+
+    private boolean isRolledBack(Event event) {
+        return isProcessed(event.getPayload().getId(), event.getTransactionId())
+                && orderInventoryRepository.existsByOrderIdAndTransactionIdAndRolledBackTrue(event.getPayload().getId(), event.getTransactionId());
+    }
+
+    private void dropRolledBack(Event event) {
+        sagaLogger.warn(ESagaLogStage.PROCESS, SagaMetadata.from(event),
+                "Dropping event of an already returned reservation from {}", CURRENT_SOURCE);
     }
 
     private void createOrderInventory(Event event) {
@@ -99,24 +297,78 @@ public class InventoryService {
         event.setStatus(ESagaStatus.FAIL);
         event.setSource(CURRENT_SOURCE);
         try {
-            returnInventoryToPreviousValues(event);
-            event.addHistory(event, "Rollback executed for inventory!");
+            if (Boolean.TRUE.equals(transactionTemplate.execute(status -> returnInventoryToPreviousValues(event)))) {
+                idempotencyFilter.markProcessed(event.getPayload().getId(), event.getTransactionId());
+            }
+            event.addHistory("Rollback executed for inventory!");
         } catch (Exception ex) {
-            event.addHistoryFail("- Inventory failed: ".concat(ex.getMessage()), CURRENT_SOURCE);
+            event.addHistoryFail(CURRENT_SOURCE, "Fail while doing inventory update: - Inventory failed: ".concat(ex.getMessage()));
         }
 
         sagaExecutionController.handleSaga(event);
     }
 
-    private void returnInventoryToPreviousValues(Event event) {
-        orderInventoryRepository
-                .findByOrderIdAndTransactionId(event.getPayload().getId(), event.getTransactionId())
+    // The reserved quantity is added back instead of restoring oldQuantity, which would undo the
+    // reservations other orders made on the same product since this one. Rows are flagged once
+    // returned, so a redelivered rollback does not add the quantity twice. Returns whether rows for
+    // a saga that had none were recorded.
+    private boolean returnInventoryToPreviousValues(Event event) {
+        List<OrderInventory> storedInventories = orderInventoryRepository
+                .findByOrderIdAndTransactionId(event.getPayload().getId(), event.getTransactionId());
+        if (storedInventories.isEmpty()) {
+            return recordEmptyRollback(event);
+        }
+
+        List<OrderInventory> orderInventories = storedInventories
+                .stream()
+                .filter(orderInventory -> !orderInventory.isRolledBack())
+                .toList();
+        if (orderInventories.isEmpty()) {
+            return false;
+        }
+
+        Map<String, Inventory> inventories = inventoryRepository
+                .findLockedByProductCodeInOrderByProductCode(orderInventories
+                        .stream()
+                        .map(orderInventory -> orderInventory.getInventory().getProductCode())
+                        .collect(toSet()))
+                .stream()
+                .collect(toMap(Inventory::getProductCode, identity()));
+
+        orderInventories
                 .forEach(orderInventory -> {
-                    Inventory inventory = orderInventory.getInventory();
-                    inventory.setAvailable(orderInventory.getOldQuantity());
+                    Inventory inventory = inventories.get(orderInventory.getInventory().getProductCode());
+                    inventory.setAvailable(inventory.getAvailable() + orderInventory.getOrderQuantity());
+                    orderInventory.setRolledBack(true);
                     inventoryRepository.save(inventory);
-                    log.info("Restored inventory for order {} from {} to {}",
-                            event.getPayload().getId(), orderInventory.getNewQuantity(), inventory.getAvailable());
+                    orderInventoryRepository.save(orderInventory);
+                    log.info("Returned {} units of {} for order {}, available is now {}",
+                            orderInventory.getOrderQuantity(), inventory.getProductCode(),
+                            event.getPayload().getId(), inventory.getAvailable());
                 });
+        return false;
+    }
+
+    // Nothing was reserved, e.g. for a saga compensated by the order-service timeout before it reached
+    // inventory. Rolled back rows with no quantity are stored anyway, as product validation does, so a
+    // forward event of the saga arriving later is dropped instead of reserving stock.
+    private boolean recordEmptyRollback(Event event) {
+        List<OrderInventory> orderInventories = new ArrayList<>();
+        event.getPayload()
+                .getProducts()
+                .forEach(product -> inventoryRepository
+                        .findByProductCode(product.getProduct().getCode())
+                        .ifPresent(inventory -> orderInventories.add(OrderInventory.builder()
+                                .inventory(inventory)
+                                .oldQuantity(inventory.getAvailable())
+                                .orderQuantity(0)
+                                .newQuantity(inventory.getAvailable())
+                                .orderId(event.getPayload().getId())
+                                .transactionId(event.getTransactionId())
+                                .rolledBack(true)
+                                .build())));
+
+        orderInventoryRepository.saveAll(orderInventories);
+        return !orderInventories.isEmpty();
     }
 }
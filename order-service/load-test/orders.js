@@ -0,0 +1,78 @@
+// k6 load test for order-service. Run it once per mode and compare the summaries:
+//   WEB_APPLICATION_TYPE=servlet  ./gradlew :order-service:bootRun
+//   WEB_APPLICATION_TYPE=reactive ./gradlew :order-service:bootRun
+//   k6 run -e MODE=servlet order-service/load-test/orders.js
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+import { Gauge } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:3000';
+const MODE = __ENV.MODE || 'servlet';
+
+const peakThreads = new Gauge('service_jvm_threads_peak');
+const liveThreads = new Gauge('service_jvm_threads_live');
+
+export const options = {
+  scenarios: {
+    clients: {
+      executor: 'constant-vus',
+      vus: Number(__ENV.VUS || 10000),
+      duration: __ENV.DURATION || '2m',
+    },
+  },
+  thresholds: {
+    'http_req_duration{name:createOrder}': ['p(99)<2000'],
+    'http_req_duration{name:findState}': ['p(99)<1000'],
+  },
+  summaryTrendStats: ['avg', 'p(90)', 'p(95)', 'p(99)', 'max'],
+};
+
+const ORDER = JSON.stringify({
+  products: [
+    { product: { code: 'COMIC_BOOKS', unitValue: 15.5 }, quantity: 3 },
+    { product: { code: 'BOOKS', unitValue: 9.9 }, quantity: 1 },
+  ],
+});
+
+const PARAMS = { headers: { 'Content-Type': 'application/json' } };
+
+export default function () {
+  const created = http.post(`${BASE_URL}/api/orders`, ORDER, { ...PARAMS, tags: { name: 'createOrder' } });
+  check(created, { 'order accepted or shed': (r) => r.status === 200 || r.status === 429 });
+
+  if (created.status === 200) {
+    const orderId = created.json('id');
+    const state = http.get(`${BASE_URL}/api/events/state?orderId=${orderId}`, { tags: { name: 'findState' } });
+    check(state, { 'state found': (r) => r.status === 200 });
+  }
+  sleep(1);
+}
+
+function metric(name) {
+  const response = http.get(`${BASE_URL}/actuator/metrics/${name}`);
+  return response.status === 200 ? response.json('measurements.0.value') : null;
+}
+
+// Thread counts are read from the service itself once the clients are done.
+export function teardown() {
+  peakThreads.add(metric('jvm.threads.peak'));
+  liveThreads.add(metric('jvm.threads.live'));
+}
+
+export function handleSummary(data) {
+  const trend = (name) => data.metrics[`http_req_duration{name:${name}}`];
+  const report = {
+    mode: MODE,
+    vus: options.scenarios.clients.vus,
+    createOrderP99: trend('createOrder') && trend('createOrder').values['p(99)'],
+    findStateP99: trend('findState') && trend('findState').values['p(99)'],
+    requests: data.metrics.http_reqs.values.count,
+    failedRate: data.metrics.http_req_failed.values.rate,
+    peakThreads: data.metrics.service_jvm_threads_peak && data.metrics.service_jvm_threads_peak.values.value,
+    liveThreads: data.metrics.service_jvm_threads_live && data.metrics.service_jvm_threads_live.values.value,
+  };
+  return {
+    stdout: JSON.stringify(report, null, 2) + '\n',
+    [`order-service/load-test/summary-${MODE}.json`]: JSON.stringify({ report, data }, null, 2),
+  };
+}
@@ -1,5 +1,6 @@
 package br.com.microservices.choreography.orderservice.config.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -14,4 +15,13 @@ public class ExceptionGlobalHandler {
         return new ResponseEntity<>(details, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<?> handleAdmissionRejectedException(AdmissionRejectedException admissionRejectedException) {
+        var details = new ExceptionDetails(HttpStatus.TOO_MANY_REQUESTS.value(), admissionRejectedException.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(admissionRejectedException.getRetryAfterSeconds()))
+                .body(details);
+    }
+
 }
@@ -1,37 +1,56 @@
 package br.com.microservices.choreography.orderservice.config.kafka;
 
+import br.com.microservices.choreography.orderservice.core.document.Event;
+import br.com.microservices.choreography.orderservice.core.dto.EventSummary;
+import br.com.microservices.choreography.orderservice.core.dto.HistoryDelta;
+import br.com.microservices.choreography.sagacore.config.kafka.CodecProperties;
+import br.com.microservices.choreography.sagacore.core.codec.EventCodecRegistry;
+import br.com.microservices.choreography.sagacore.core.dto.SagaMetadata;
+import br.com.microservices.choreography.sagacore.core.logging.SagaLogger;
+import br.com.microservices.choreography.sagacore.core.producer.SagaProducer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
-import org.apache.kafka.clients.producer.ProducerConfig;
-import org.apache.kafka.common.serialization.StringDeserializer;
-import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Properties;
 
 @EnableKafka
 @Configuration
 @RequiredArgsConstructor
 public class KafkaConfig {
 
-    private static final Integer PARTITION_COUNT = 1;
     private static final Integer REPLICA_COUNT = 1;
 
-    @Value("${spring.kafka.bootstrap-servers}")
-    private String bootstrapServers;
+    @Value("${spring.kafka.partitions}")
+    private Integer partitionCount;
 
-    @Value("${spring.kafka.consumer.group-id}")
-    private String groupId;
+    @Value("${spring.kafka.listener.concurrency}")
+    private Integer concurrency;
 
-    @Value("${spring.kafka.consumer.auto-offset-reset}")
-    private String autoOffsetReset;
+    @Value("${spring.kafka.producer.max-in-flight-sends}")
+    private Integer maxInFlightSends;
+
+    @Value("${spring.kafka.producer.backpressure-timeout-ms}")
+    private Long backpressureTimeoutMs;
+
+    @Value("${spring.kafka.batch-listener.max-records}")
+    private Integer batchMaxRecords;
+
+    @Value("${spring.kafka.batch-listener.min-bytes}")
+    private Integer batchMinBytes;
+
+    @Value("${spring.kafka.batch-listener.max-wait-ms}")
+    private Integer batchMaxWaitMs;
 
     @Value("${spring.kafka.topic.product-validation-start}")
     private String productValidationStartTopic;
@@ -39,19 +58,59 @@ public class KafkaConfig {
     @Value("${spring.kafka.topic.notify-ending}")
     private String notifyEndingTopic;
 
+    @Value("${spring.kafka.topic.saga-completed}")
+    private String sagaCompletedTopic;
+
+    // Each poll is one batch: the broker holds the fetch until min-bytes are available or max-wait-ms
+    // has passed, so the size and time window is set here rather than by buffering in the listener.
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> batchKafkaListenerContainerFactory(ConsumerFactory<String, byte[]> consumerFactory,
+                                                                                                       DefaultErrorHandler errorHandler) {
+        var consumerProps = new Properties();
+        consumerProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchMaxRecords.toString());
+        consumerProps.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, batchMinBytes.toString());
+        consumerProps.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, batchMaxWaitMs.toString());
+
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, byte[]>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(concurrency);
+        factory.setCommonErrorHandler(errorHandler);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setKafkaConsumerProperties(consumerProps);
+        return factory;
+    }
+
+    @Bean
+    public EventCodecRegistry<Event> eventCodecRegistry(CodecProperties codecProperties, ObjectMapper objectMapper) {
+        return new EventCodecRegistry<>(codecProperties, objectMapper, Event.class);
+    }
+
+    @Bean
+    public EventCodecRegistry<HistoryDelta> historyDeltaCodecRegistry(CodecProperties codecProperties, ObjectMapper objectMapper) {
+        return new EventCodecRegistry<>(codecProperties, objectMapper, HistoryDelta.class);
+    }
+
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
-        return new DefaultKafkaConsumerFactory<>(consumerProps());
+    public EventCodecRegistry<EventSummary> eventSummaryCodecRegistry(CodecProperties codecProperties, ObjectMapper objectMapper) {
+        return new EventCodecRegistry<>(codecProperties, objectMapper, EventSummary.class);
     }
 
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
-        return new DefaultKafkaProducerFactory<>(producerProps());
+    public SagaProducer<Event> sagaProducer(KafkaTemplate<String, byte[]> kafkaTemplate,
+                                            EventCodecRegistry<Event> eventCodecRegistry,
+                                            MeterRegistry meterRegistry,
+                                            SagaLogger sagaLogger) {
+        return new SagaProducer<>("saga", kafkaTemplate, eventCodecRegistry, meterRegistry, sagaLogger,
+                this::toMetadata, maxInFlightSends, backpressureTimeoutMs);
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate(ProducerFactory<String, String> producerFactory) {
-        return new KafkaTemplate<>(producerFactory);
+    public SagaProducer<EventSummary> completionProducer(KafkaTemplate<String, byte[]> kafkaTemplate,
+                                                         EventCodecRegistry<EventSummary> eventSummaryCodecRegistry,
+                                                         MeterRegistry meterRegistry,
+                                                         SagaLogger sagaLogger) {
+        return new SagaProducer<>("completion", kafkaTemplate, eventSummaryCodecRegistry, meterRegistry, sagaLogger,
+                this::toSummaryMetadata, maxInFlightSends, backpressureTimeoutMs);
     }
 
     @Bean
@@ -64,36 +123,39 @@ public class KafkaConfig {
         return buildTopic(notifyEndingTopic);
     }
 
-    private Map<String, Object> consumerProps() {
-
-        Map<String, Object> props = new HashMap<>();
-
-        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
-
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-
-        return props;
+    @Bean
+    public NewTopic sagaCompletedTopic() {
+        return buildTopic(sagaCompletedTopic);
     }
 
-    private Map<String, Object> producerProps() {
-
-        Map<String, Object> props = new HashMap<>();
-
-        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+    private SagaMetadata toSummaryMetadata(EventSummary summary) {
+        return SagaMetadata
+                .builder()
+                .orderId(summary.orderId())
+                .transactionId(summary.transactionId())
+                .source(summary.source())
+                .status(summary.status() == null ? null : summary.status().name())
+                .createdAt(summary.createdAt())
+                .build();
+    }
 
-        return props;
+    private SagaMetadata toMetadata(Event event) {
+        return SagaMetadata
+                .builder()
+                .eventId(event.getId())
+                .orderId(event.getOrderId())
+                .transactionId(event.getTransactionId())
+                .source(event.getSource())
+                .status(event.getStatus() == null ? null : event.getStatus().name())
+                .createdAt(event.getCreatedAt())
+                .build();
     }
 
     private NewTopic buildTopic(String name) {
         return TopicBuilder
                 .name(name)
                 .replicas(REPLICA_COUNT)
-                .partitions(PARTITION_COUNT)
+                .partitions(partitionCount)
                 .build();
     }
 
@@ -0,0 +1,136 @@
+package br.com.microservices.choreography.orderservice.config.migration;
+
+import br.com.microservices.choreography.orderservice.core.document.Event;
+import br.com.microservices.choreography.orderservice.core.document.History;
+import br.com.microservices.choreography.orderservice.core.document.Order;
+import br.com.microservices.choreography.orderservice.core.document.SagaState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.MergeOperation;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static br.com.microservices.choreography.orderservice.core.enums.ESagaStatus.FAIL;
+import static br.com.microservices.choreography.orderservice.core.enums.ESagaStatus.SUCCESS;
+import static java.util.stream.Collectors.toMap;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+import static org.springframework.util.ObjectUtils.isEmpty;
+
+// One-off command that moves the saga events stored in the shared "order" collection into the event collection.
+// The migration profile runs it without the web server, Kafka listeners or scheduled jobs, and the process ends with it:
+// ./gradlew :order-service:bootRun --args='--spring.profiles.active=migration'
+@Slf4j
+@Component
+@Profile("migration")
+@RequiredArgsConstructor
+public class EventCollectionMigration implements ApplicationRunner {
+
+    private static final String CURRENT_SERVICE = "ORDER_SERVICE";
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        var legacyCollection = mongoTemplate.getCollectionName(Order.class);
+        var eventCollection = mongoTemplate.getCollectionName(Event.class);
+        var legacyEvents = where("payload").exists(true);
+
+        var aggregation = newAggregation(
+                match(legacyEvents),
+                MergeOperation
+                        .builder()
+                        .intoCollection(eventCollection)
+                        .on("_id")
+                        .whenMatched(MergeOperation.WhenDocumentsMatch.keepExistingDocument())
+                        .whenDocumentsDontMatch(MergeOperation.WhenDocumentsDontMatch.insertNewDocument())
+                        .build()
+        );
+        mongoTemplate.aggregate(aggregation, legacyCollection, Document.class);
+        var removed = mongoTemplate.remove(query(legacyEvents), legacyCollection).getDeletedCount();
+
+        var finished = backfillFinishedAt();
+
+        log.info("Moved {} saga events from collection {} to {}, {} of them finished",
+                removed, legacyCollection, eventCollection, finished);
+    }
+
+    // Marks the legacy events whose saga already ended, so the archive job picks them up. The ones still
+    // in flight are left without finishedAt and are stamped by their notifyEnding.
+    private long backfillFinishedAt() {
+        var unfinished = query(where("finishedAt").exists(false)).cursorBatchSize(BACKFILL_BATCH_SIZE);
+        unfinished.fields().include("orderId", "eventHistory");
+
+        var finished = 0L;
+        try (var events = mongoTemplate.stream(unfinished, Event.class)) {
+            var iterator = events.iterator();
+            var batch = new ArrayList<Event>(BACKFILL_BATCH_SIZE);
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == BACKFILL_BATCH_SIZE || !iterator.hasNext()) {
+                    finished += backfill(batch);
+                    batch.clear();
+                }
+            }
+        }
+        return finished;
+    }
+
+    private long backfill(List<Event> events) {
+        var orderIds = events.stream().map(Event::getOrderId).toList();
+        var stateFinishedAt = mongoTemplate
+                .find(query(where("orderId").in(orderIds).and("finishedAt").exists(true)), SagaState.class)
+                .stream()
+                .collect(toMap(SagaState::getOrderId, SagaState::getFinishedAt));
+
+        var bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Event.class);
+        var updates = 0;
+        for (var event : events) {
+            var finishedAt = resolveFinishedAt(event, stateFinishedAt.get(event.getOrderId()));
+            if (finishedAt.isPresent()) {
+                bulk.updateOne(query(where("id").is(event.getId())), new Update().set("finishedAt", finishedAt.get()));
+                updates++;
+            }
+        }
+        return updates == 0 ? 0 : bulk.execute().getModifiedCount();
+    }
+
+    // saga_state records the end of the sagas started since it exists. Older ones ended only if notifyEnding
+    // wrote its entry: an ORDER_SERVICE entry with the final status, after the starting one. The source,
+    // status and history length of the event itself do not tell: in delta mode the stored event keeps the
+    // starting source and status while the other services push their entries into its history.
+    static Optional<LocalDateTime> resolveFinishedAt(Event event, LocalDateTime stateFinishedAt) {
+        if (stateFinishedAt != null) {
+            return Optional.of(stateFinishedAt);
+        }
+        if (isEmpty(event.getEventHistory())) {
+            return Optional.empty();
+        }
+        return event.getEventHistory()
+                .stream()
+                .skip(1)
+                .filter(EventCollectionMigration::isEndingEntry)
+                .map(History::getCreatedAt)
+                .findFirst();
+    }
+
+    private static boolean isEndingEntry(History history) {
+        return CURRENT_SERVICE.equals(history.getSource())
+                && (SUCCESS.equals(history.getStatus()) || FAIL.equals(history.getStatus()));
+    }
+
+}
@@ -0,0 +1,12 @@
+package br.com.microservices.choreography.orderservice.config.scheduling;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@EnableScheduling
+@Configuration
+@Profile("!migration")
+public class SchedulingConfig {
+
+}
@@ -1,30 +1,159 @@
 package br.com.microservices.choreography.orderservice.core.consumer;
 
+import br.com.microservices.choreography.orderservice.core.document.Event;
+import br.com.microservices.choreography.orderservice.core.dto.EventSummary;
+import br.com.microservices.choreography.orderservice.core.dto.HistoryDelta;
+import br.com.microservices.choreography.orderservice.core.service.AdmissionService;
 import br.com.microservices.choreography.orderservice.core.service.EventService;
-import br.com.microservices.choreography.orderservice.core.utils.JsonUtil;
+import br.com.microservices.choreography.orderservice.core.service.SagaCompletionService;
+import br.com.microservices.choreography.orderservice.core.service.SagaTimeoutService;
+import br.com.microservices.choreography.sagacore.config.kafka.RetryTopicResolver;
+import br.com.microservices.choreography.sagacore.core.codec.EventCodecException;
+import br.com.microservices.choreography.sagacore.core.codec.EventCodecRegistry;
+import br.com.microservices.choreography.sagacore.core.dto.SagaMetadata;
+import br.com.microservices.choreography.sagacore.core.enums.ESagaLogStage;
+import br.com.microservices.choreography.sagacore.core.logging.SagaLogger;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Slf4j
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class EventConsumer {
 
-    private final JsonUtil jsonUtil;
+    private final EventCodecRegistry<Event> codecRegistry;
+    private final EventCodecRegistry<HistoryDelta> historyCodecRegistry;
+    private final EventCodecRegistry<EventSummary> summaryCodecRegistry;
     private final EventService eventService;
+    private final SagaCompletionService sagaCompletionService;
+    private final SagaTimeoutService sagaTimeoutService;
+    private final AdmissionService admissionService;
+    private final RetryTopicResolver retryTopicResolver;
+    private final DeadLetterPublishingRecoverer deadLetterPublishingRecoverer;
+    private final SagaLogger sagaLogger;
+
+    @Value("${spring.kafka.topic.notify-ending}")
+    private String notifyEndingTopic;
 
-    public EventConsumer(JsonUtil jsonUtil, EventService eventService) {
-        this.jsonUtil = jsonUtil;
+    public EventConsumer(EventCodecRegistry<Event> codecRegistry,
+                         EventCodecRegistry<HistoryDelta> historyCodecRegistry,
+                         EventCodecRegistry<EventSummary> summaryCodecRegistry,
+                         EventService eventService,
+                         SagaCompletionService sagaCompletionService,
+                         SagaTimeoutService sagaTimeoutService,
+                         AdmissionService admissionService,
+                         RetryTopicResolver retryTopicResolver,
+                         DeadLetterPublishingRecoverer deadLetterPublishingRecoverer,
+                         SagaLogger sagaLogger) {
+        this.codecRegistry = codecRegistry;
+        this.historyCodecRegistry = historyCodecRegistry;
+        this.summaryCodecRegistry = summaryCodecRegistry;
         this.eventService = eventService;
+        this.sagaCompletionService = sagaCompletionService;
+        this.sagaTimeoutService = sagaTimeoutService;
+        this.admissionService = admissionService;
+        this.retryTopicResolver = retryTopicResolver;
+        this.deadLetterPublishingRecoverer = deadLetterPublishingRecoverer;
+        this.sagaLogger = sagaLogger;
+    }
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.notify-ending}",
+            autoStartup = "#{!${spring.kafka.batch-listener.enabled}}"
+    )
+    public void consumeNotifyEndingEvent(ConsumerRecord<String, byte[]> record) {
+        sagaLogger.info(ESagaLogStage.CONSUME, SagaMetadata.from(record),
+                "Receiving ending notification event from {} topic", record.topic());
+        eventService.notifyEnding(codecRegistry.decode(record.value()));
+    }
+
+    // The batch is acknowledged only when the listener returns, i.e. after the bulk writes. Records that
+    // cannot be decoded or persisted are handed to the recoverer (retry topic) one by one, so the rest
+    // of the batch is never redelivered.
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.notify-ending}",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            autoStartup = "${spring.kafka.batch-listener.enabled}"
+    )
+    public void consumeNotifyEndingEvents(List<ConsumerRecord<String, byte[]>> records) {
+        var decoded = new ArrayList<ConsumerRecord<String, byte[]>>(records.size());
+        var events = new ArrayList<Event>(records.size());
+        for (var record : records) {
+            sagaLogger.info(ESagaLogStage.CONSUME, SagaMetadata.from(record),
+                    "Receiving ending notification event from {} topic", record.topic());
+            try {
+                events.add(codecRegistry.decode(record.value()));
+                decoded.add(record);
+            } catch (EventCodecException ex) {
+                deadLetterPublishingRecoverer.accept(record, ex);
+            }
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+
+        // The failed positions index events, which line up with decoded, not with records.
+        for (var index : eventService.notifyEndings(events)) {
+            var record = decoded.get(index);
+            try {
+                eventService.notifyEnding(codecRegistry.decode(record.value()));
+            } catch (RuntimeException ex) {
+                deadLetterPublishingRecoverer.accept(record, ex);
+            }
+        }
+    }
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.saga-history}"
+    )
+    public void consumeHistoryEvent(ConsumerRecord<String, byte[]> record) {
+        sagaLogger.info(ESagaLogStage.HISTORY, SagaMetadata.from(record),
+                "Receiving history delta from {} topic", record.topic());
+        eventService.appendHistory(historyCodecRegistry.decode(record.value()));
+    }
+
+    // Broadcast: each replica has its own group and only notifies the clients subscribed to it. The retry
+    // topics are consumed by the shared group, so a completion that fails here is logged and skipped;
+    // a stale admission is released by the admission sweep.
+    @KafkaListener(
+            groupId = "${app.completion.group-id}",
+            topics = "${spring.kafka.topic.saga-completed}"
+    )
+    public void consumeCompletionEvent(ConsumerRecord<String, byte[]> record) {
+        try {
+            var summary = summaryCodecRegistry.decode(record.value());
+            eventService.evictStale(summary);
+            sagaTimeoutService.cancel(summary.orderId());
+            admissionService.complete(summary.orderId());
+            sagaCompletionService.complete(summary);
+        } catch (RuntimeException ex) {
+            log.warn("Skipping completion event {}-{}@{}: {}",
+                    record.topic(), record.partition(), record.offset(), ex.getMessage());
+        }
     }
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
-            topics = "${spring.kafka.topic.notify-ending}"
+            topics = "#{retryTopicResolver.retryTopics}",
+            containerFactory = "retryKafkaListenerContainerFactory"
     )
-    public void consumeNotifyEndingEvent(String payload) {
-        log.info("Receiving ending notification event {} from notify-ending topic", payload);
-        var event = jsonUtil.toEvent(payload);
-        eventService.notifyEnding(event);
+    public void consumeRetryEvent(ConsumerRecord<String, byte[]> record) {
+        retryTopicResolver.awaitRetry(record);
+        if (notifyEndingTopic.equals(retryTopicResolver.getOriginalTopic(record))) {
+            consumeNotifyEndingEvent(record);
+        } else {
+            consumeHistoryEvent(record);
+        }
     }
 }
@@ -0,0 +1,191 @@
+package br.com.microservices.choreography.orderservice.core.consumer;
+
+import br.com.microservices.choreography.orderservice.core.document.Event;
+import br.com.microservices.choreography.orderservice.core.dto.EventSummary;
+import br.com.microservices.choreography.orderservice.core.dto.HistoryDelta;
+import br.com.microservices.choreography.orderservice.core.service.AdmissionService;
+import br.com.microservices.choreography.orderservice.core.service.EventService;
+import br.com.microservices.choreography.orderservice.core.service.ReactiveEventService;
+import br.com.microservices.choreography.orderservice.core.service.SagaCompletionService;
+import br.com.microservices.choreography.orderservice.core.service.SagaTimeoutService;
+import br.com.microservices.choreography.sagacore.config.kafka.RetryTopicResolver;
+import br.com.microservices.choreography.sagacore.core.codec.EventCodecRegistry;
+import br.com.microservices.choreography.sagacore.core.dto.SagaMetadata;
+import br.com.microservices.choreography.sagacore.core.enums.ESagaLogStage;
+import br.com.microservices.choreography.sagacore.core.logging.SagaLogger;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Function;
+
+// Reactive counterpart of EventConsumer on reactor-kafka. Records are processed in order per partition,
+// offsets are acknowledged once handled, and failures go through the same retry tiers and dead-letter topics.
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveEventConsumer {
+
+    private static final Duration RECEIVE_MIN_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration RECEIVE_MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    private final EventCodecRegistry<Event> codecRegistry;
+    private final EventCodecRegistry<HistoryDelta> historyCodecRegistry;
+    private final EventCodecRegistry<EventSummary> summaryCodecRegistry;
+    private final ReactiveEventService reactiveEventService;
+    private final EventService eventService;
+    private final SagaCompletionService sagaCompletionService;
+    private final SagaTimeoutService sagaTimeoutService;
+    private final AdmissionService admissionService;
+    private final RetryTopicResolver retryTopicResolver;
+    private final DeadLetterPublishingRecoverer deadLetterPublishingRecoverer;
+    private final SagaLogger sagaLogger;
+    private final List<Disposable> subscriptions = new ArrayList<>();
+
+    @Value("${spring.kafka.consumer.group-id}")
+    private String groupId;
+
+    @Value("${app.completion.group-id}")
+    private String completionGroupId;
+
+    @Value("${spring.kafka.topic.notify-ending}")
+    private String notifyEndingTopic;
+
+    @Value("${spring.kafka.topic.saga-history}")
+    private String historyTopic;
+
+    @Value("${spring.kafka.topic.saga-completed}")
+    private String completedTopic;
+
+    public ReactiveEventConsumer(ConsumerFactory<String, byte[]> consumerFactory,
+                                 EventCodecRegistry<Event> codecRegistry,
+                                 EventCodecRegistry<HistoryDelta> historyCodecRegistry,
+                                 EventCodecRegistry<EventSummary> summaryCodecRegistry,
+                                 ReactiveEventService reactiveEventService,
+                                 EventService eventService,
+                                 SagaCompletionService sagaCompletionService,
+                                 SagaTimeoutService sagaTimeoutService,
+                                 AdmissionService admissionService,
+                                 RetryTopicResolver retryTopicResolver,
+                                 DeadLetterPublishingRecoverer deadLetterPublishingRecoverer,
+                                 SagaLogger sagaLogger) {
+        this.consumerFactory = consumerFactory;
+        this.codecRegistry = codecRegistry;
+        this.historyCodecRegistry = historyCodecRegistry;
+        this.summaryCodecRegistry = summaryCodecRegistry;
+        this.reactiveEventService = reactiveEventService;
+        this.eventService = eventService;
+        this.sagaCompletionService = sagaCompletionService;
+        this.sagaTimeoutService = sagaTimeoutService;
+        this.admissionService = admissionService;
+        this.retryTopicResolver = retryTopicResolver;
+        this.deadLetterPublishingRecoverer = deadLetterPublishingRecoverer;
+        this.sagaLogger = sagaLogger;
+    }
+
+    @PostConstruct
+    public void start() {
+        subscriptions.add(receive(groupId, List.of(notifyEndingTopic), this::consumeNotifyEndingEvent));
+        subscriptions.add(receive(groupId, List.of(historyTopic), this::consumeHistoryEvent));
+        subscriptions.add(receive(groupId, retryTopicResolver.getRetryTopics(), this::consumeRetryEvent));
+        // Broadcast: each replica has its own group and only notifies the clients subscribed to it, so a
+        // completion that fails is skipped rather than sent to the retry topics of the shared group.
+        subscriptions.add(receive(completionGroupId, List.of(completedTopic), this::consumeCompletionEvent));
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscriptions.forEach(Disposable::dispose);
+    }
+
+    private Mono<Void> consumeNotifyEndingEvent(ConsumerRecord<String, byte[]> record) {
+        sagaLogger.info(ESagaLogStage.CONSUME, SagaMetadata.from(record),
+                "Receiving ending notification event from {} topic", record.topic());
+        return Mono.defer(() -> reactiveEventService.notifyEnding(codecRegistry.decode(record.value())));
+    }
+
+    private Mono<Void> consumeHistoryEvent(ConsumerRecord<String, byte[]> record) {
+        sagaLogger.info(ESagaLogStage.HISTORY, SagaMetadata.from(record),
+                "Receiving history delta from {} topic", record.topic());
+        return Mono.defer(() -> reactiveEventService.appendHistory(historyCodecRegistry.decode(record.value())));
+    }
+
+    private Mono<Void> consumeCompletionEvent(ConsumerRecord<String, byte[]> record) {
+        return Mono.fromRunnable(() -> {
+            var summary = summaryCodecRegistry.decode(record.value());
+            eventService.evictStale(summary);
+            sagaTimeoutService.cancel(summary.orderId());
+            admissionService.complete(summary.orderId());
+            sagaCompletionService.complete(summary);
+        }).onErrorResume(ex -> {
+            log.warn("Skipping completion event {}-{}@{}: {}",
+                    record.topic(), record.partition(), record.offset(), ex.getMessage());
+            return Mono.empty();
+        }).then();
+    }
+
+    private Mono<Void> consumeRetryEvent(ConsumerRecord<String, byte[]> record) {
+        return Mono
+                .delay(retryTopicResolver.getRetryDelay(record))
+                .then(Mono.defer(() -> notifyEndingTopic.equals(retryTopicResolver.getOriginalTopic(record))
+                        ? consumeNotifyEndingEvent(record)
+                        : consumeHistoryEvent(record)));
+    }
+
+    private Disposable receive(String groupId,
+                               Collection<String> topics,
+                               Function<ConsumerRecord<String, byte[]>, Mono<Void>> handler) {
+        var props = new HashMap<>(consumerFactory.getConfigurationProperties());
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        var options = ReceiverOptions.<String, byte[]>create(props).subscription(topics);
+
+        return KafkaReceiver
+                .create(options)
+                .receive()
+                .groupBy(record -> record.receiverOffset().topicPartition())
+                .flatMap(partition -> partition.concatMap(record -> handler
+                        .apply(record)
+                        .onErrorResume(ex -> recover(record, ex))
+                        .doFinally(signal -> record.receiverOffset().acknowledge())))
+                // A receiver error (broker unreachable, failed commit) would end the subscription for good;
+                // resubscribing creates a new consumer that resumes from the committed offsets, and the
+                // backoff is reset once records flow again.
+                .retryWhen(Retry
+                        .backoff(Long.MAX_VALUE, RECEIVE_MIN_BACKOFF)
+                        .maxBackoff(RECEIVE_MAX_BACKOFF)
+                        .transientErrors(true)
+                        .doBeforeRetry(signal -> log.warn("Consumer of {} failed, resubscribing (attempt {}): {}",
+                                topics, signal.totalRetriesInARow() + 1, signal.failure().getMessage())))
+                .subscribe(
+                        null,
+                        ex -> log.error("Consumer of {} in group {} stopped", topics, groupId, ex)
+                );
+    }
+
+    private Mono<Void> recover(ConsumerRecord<String, byte[]> record, Throwable ex) {
+        var exception = ex instanceof Exception cause ? cause : new IllegalStateException(ex);
+        return Mono
+                .fromRunnable(() -> deadLetterPublishingRecoverer.accept(record, exception))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+}
@@ -1,20 +1,28 @@
 package br.com.microservices.choreography.orderservice.core.controller;
 
 import br.com.microservices.choreography.orderservice.core.document.Event;
+import br.com.microservices.choreography.orderservice.core.document.SagaState;
 import br.com.microservices.choreography.orderservice.core.dto.EventFilters;
+import br.com.microservices.choreography.orderservice.core.dto.EventPage;
+import br.com.microservices.choreography.orderservice.core.dto.EventSummary;
 import br.com.microservices.choreography.orderservice.core.service.EventService;
+import br.com.microservices.choreography.orderservice.core.service.SagaStateService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/events")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class EventController {
 
     private final EventService eventService;
+    private final SagaStateService sagaStateService;
 
-    public EventController(EventService eventService) {
+    public EventController(EventService eventService, SagaStateService sagaStateService) {
         this.eventService = eventService;
+        this.sagaStateService = sagaStateService;
     }
 
     @GetMapping
@@ -22,8 +30,24 @@ public class EventController {
         return eventService.findByFilters(filters);
     }
 
+    @GetMapping("summary")
+    public EventSummary findSummaryByFilters(EventFilters filters) {
+        return eventService.findSummaryByFilters(filters);
+    }
+
+    @GetMapping("state")
+    public SagaState findStateByFilters(EventFilters filters) {
+        return sagaStateService.findStateByFilters(filters);
+    }
+
     @GetMapping("all")
-    public List<Event> findAll() {
-        return eventService.findAll();
+    public EventPage findAll(@RequestParam(required = false) String cursor,
+                             @RequestParam(required = false) Integer limit) {
+        return eventService.findAll(cursor, limit);
+    }
+
+    @GetMapping(value = "all/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamAll() {
+        return eventService::streamAll;
     }
 }
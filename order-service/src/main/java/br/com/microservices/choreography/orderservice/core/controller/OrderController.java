@@ -1,25 +1,51 @@
 package br.com.microservices.choreography.orderservice.core.controller;
 
 import br.com.microservices.choreography.orderservice.core.document.Order;
+import br.com.microservices.choreography.orderservice.core.dto.OrderBatchItem;
 import br.com.microservices.choreography.orderservice.core.dto.OrderRequest;
 import br.com.microservices.choreography.orderservice.core.service.OrderService;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import br.com.microservices.choreography.orderservice.core.service.SagaCompletionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/orders")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class OrderController {
 
     private final OrderService orderService;
+    private final SagaCompletionService sagaCompletionService;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, SagaCompletionService sagaCompletionService) {
         this.orderService = orderService;
+        this.sagaCompletionService = sagaCompletionService;
     }
 
     @PostMapping
     public Order createOrder(@RequestBody OrderRequest orderRequest) {
         return orderService.createOrder(orderRequest);
     }
+
+    @PostMapping(value = "batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<OrderBatchItem> createOrders(@RequestBody List<OrderRequest> orderRequests) {
+        return orderService.createOrders(orderRequests);
+    }
+
+    @PostMapping(value = "batch", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void createOrdersStream(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        orderService.createOrders(request.getInputStream(), response.getOutputStream());
+    }
+
+    @GetMapping(value = "{orderId}/completion", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter awaitCompletion(@PathVariable String orderId) {
+        return sagaCompletionService.subscribe(orderId);
+    }
 }
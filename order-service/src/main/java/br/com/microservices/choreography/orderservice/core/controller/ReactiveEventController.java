@@ -0,0 +1,51 @@
+package br.com.microservices.choreography.orderservice.core.controller;
+
+import br.com.microservices.choreography.orderservice.core.document.Event;
+import br.com.microservices.choreography.orderservice.core.document.SagaState;
+import br.com.microservices.choreography.orderservice.core.dto.EventFilters;
+import br.com.microservices.choreography.orderservice.core.dto.EventPage;
+import br.com.microservices.choreography.orderservice.core.dto.EventSummary;
+import br.com.microservices.choreography.orderservice.core.service.ReactiveEventService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/events")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveEventController {
+
+    private final ReactiveEventService eventService;
+
+    public ReactiveEventController(ReactiveEventService eventService) {
+        this.eventService = eventService;
+    }
+
+    @GetMapping
+    public Mono<Event> findByFilters(EventFilters filters) {
+        return eventService.findByFilters(filters);
+    }
+
+    @GetMapping("summary")
+    public Mono<EventSummary> findSummaryByFilters(EventFilters filters) {
+        return eventService.findSummaryByFilters(filters);
+    }
+
+    @GetMapping("state")
+    public Mono<SagaState> findStateByFilters(EventFilters filters) {
+        return eventService.findStateByFilters(filters);
+    }
+
+    @GetMapping("all")
+    public Mono<EventPage> findAll(@RequestParam(required = false) String cursor,
+                                   @RequestParam(required = false) Integer limit) {
+        return eventService.findAll(cursor, limit);
+    }
+
+    @GetMapping(value = "all/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Event> streamAll() {
+        return eventService.streamAll();
+    }
+}
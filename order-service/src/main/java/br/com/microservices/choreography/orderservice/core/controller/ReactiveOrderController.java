@@ -0,0 +1,55 @@
+package br.com.microservices.choreography.orderservice.core.controller;
+
+import br.com.microservices.choreography.orderservice.core.document.Order;
+import br.com.microservices.choreography.orderservice.core.dto.EventSummary;
+import br.com.microservices.choreography.orderservice.core.dto.OrderBatchItem;
+import br.com.microservices.choreography.orderservice.core.dto.OrderRequest;
+import br.com.microservices.choreography.orderservice.core.service.ReactiveOrderService;
+import br.com.microservices.choreography.orderservice.core.service.SagaCompletionService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/orders")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveOrderController {
+
+    private static final String COMPLETION_EVENT = "saga-completed";
+
+    private final ReactiveOrderService orderService;
+    private final SagaCompletionService sagaCompletionService;
+
+    public ReactiveOrderController(ReactiveOrderService orderService, SagaCompletionService sagaCompletionService) {
+        this.orderService = orderService;
+        this.sagaCompletionService = sagaCompletionService;
+    }
+
+    @PostMapping
+    public Mono<Order> createOrder(@RequestBody OrderRequest orderRequest) {
+        return orderService.createOrder(orderRequest);
+    }
+
+    @PostMapping(value = "batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<List<OrderBatchItem>> createOrders(@RequestBody List<OrderRequest> orderRequests) {
+        return orderService.createOrders(orderRequests);
+    }
+
+    @PostMapping(value = "batch", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<OrderBatchItem> createOrdersStream(@RequestBody Flux<OrderRequest> orderRequests) {
+        return orderService.createOrders(orderRequests);
+    }
+
+    @GetMapping(value = "{orderId}/completion", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<EventSummary>> awaitCompletion(@PathVariable String orderId) {
+        return sagaCompletionService
+                .awaitCompletion(orderId)
+                .map(summary -> ServerSentEvent.builder(summary).event(COMPLETION_EVENT).build())
+                .flux();
+    }
+}
@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -19,7 +21,11 @@ import static org.springframework.util.ObjectUtils.isEmpty;
 @AllArgsConstructor
 @NoArgsConstructor
 // MongoDB
-@Document(collection = "order")
+@Document(collection = "event")
+// status and source are part of the keys so summary lookups are answered from the index alone
+@CompoundIndex(name = "orderId_createdAt", def = "{'orderId': 1, 'createdAt': -1, 'transactionId': 1, 'status': 1, 'source': 1}")
+@CompoundIndex(name = "transactionId_createdAt", def = "{'transactionId': 1, 'createdAt': -1, 'orderId': 1, 'status': 1, 'source': 1}")
+@CompoundIndex(name = "createdAt_id", def = "{'createdAt': -1, '_id': -1}")
 public class Event {
 
     @Id
@@ -31,6 +37,8 @@ public class Event {
     private ESagaStatus status;
     private List<History> eventHistory;
     private LocalDateTime createdAt;
+    @Indexed(sparse = true)
+    private LocalDateTime finishedAt;
 
     public void addHistory(String message) {
         History history = History.builder()
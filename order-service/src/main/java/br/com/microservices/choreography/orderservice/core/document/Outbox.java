@@ -0,0 +1,27 @@
+package br.com.microservices.choreography.orderservice.core.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+// MongoDB
+@Document(collection = "outbox")
+public class Outbox {
+
+    @Id
+    private String id;
+    private Event event;
+    private String claimToken;
+    private LocalDateTime claimedAt;
+    private LocalDateTime createdAt;
+
+}
@@ -0,0 +1,39 @@
+package br.com.microservices.choreography.orderservice.core.document;
+
+import br.com.microservices.choreography.orderservice.core.enums.ESagaOutcome;
+import br.com.microservices.choreography.orderservice.core.enums.ESagaStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+// MongoDB
+@Document(collection = "saga_state")
+// in-progress sagas are reloaded into the timeout wheel on startup
+@CompoundIndex(name = "outcome_startedAt", def = "{'outcome': 1, 'startedAt': 1}")
+public class SagaState {
+
+    @Id
+    private String orderId;
+    @Indexed(unique = true)
+    private String transactionId;
+    private String eventId;
+    private ESagaStatus status;
+    private String source;
+    private ESagaOutcome outcome;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime timedOutAt;
+    private Long durationMs;
+
+}
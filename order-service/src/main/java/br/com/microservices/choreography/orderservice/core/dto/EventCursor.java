@@ -0,0 +1,38 @@
+package br.com.microservices.choreography.orderservice.core.dto;
+
+import br.com.microservices.choreography.orderservice.config.exception.ValidationException;
+import br.com.microservices.choreography.orderservice.core.document.Event;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Opaque keyset position: the (createdAt, id) of the last event returned on the previous page.
+public record EventCursor(LocalDateTime createdAt, String id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static EventCursor of(Event event) {
+        return new EventCursor(event.getCreatedAt(), event.getId());
+    }
+
+    public static EventCursor decode(String cursor) {
+        try {
+            var value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var separator = value.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new ValidationException("Invalid cursor.");
+            }
+            return new EventCursor(LocalDateTime.parse(value.substring(0, separator)), value.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new ValidationException("Invalid cursor.");
+        }
+    }
+
+    public String encode() {
+        var value = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
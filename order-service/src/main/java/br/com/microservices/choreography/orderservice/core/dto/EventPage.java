@@ -0,0 +1,18 @@
+package br.com.microservices.choreography.orderservice.core.dto;
+
+import br.com.microservices.choreography.orderservice.core.document.Event;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventPage {
+
+    private List<Event> content;
+    private String nextCursor;
+
+}
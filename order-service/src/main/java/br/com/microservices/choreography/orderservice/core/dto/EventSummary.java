@@ -0,0 +1,12 @@
+package br.com.microservices.choreography.orderservice.core.dto;
+
+import br.com.microservices.choreography.orderservice.core.enums.ESagaStatus;
+
+import java.time.LocalDateTime;
+
+public record EventSummary(String orderId,
+                           String transactionId,
+                           String source,
+                           ESagaStatus status,
+                           LocalDateTime createdAt) {
+}
@@ -0,0 +1,20 @@
+package br.com.microservices.choreography.orderservice.core.dto;
+
+import br.com.microservices.choreography.orderservice.core.document.History;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HistoryDelta {
+
+    private String eventId;
+    private String orderId;
+    private String transactionId;
+    private List<History> history;
+
+}
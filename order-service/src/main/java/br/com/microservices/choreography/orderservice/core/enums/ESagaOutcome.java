@@ -0,0 +1,10 @@
+package br.com.microservices.choreography.orderservice.core.enums;
+
+public enum ESagaOutcome {
+
+    IN_PROGRESS,
+    COMPLETED,
+    FAILED,
+    TIMED_OUT;
+
+}
@@ -1,17 +1,26 @@
 package br.com.microservices.choreography.orderservice.core.repository;
 
 import br.com.microservices.choreography.orderservice.core.document.Event;
+import br.com.microservices.choreography.orderservice.core.dto.EventSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface EventRepository extends MongoRepository<Event, String> {
 
-    List<Event> findAllByOrderByCreatedAtDesc();
+    String SUMMARY_FIELDS = "{ '_id': 0, 'orderId': 1, 'transactionId': 1, 'source': 1, 'status': 1, 'createdAt': 1 }";
 
     Optional<Event> findTop1ByOrderIdOrderByCreatedAtDesc(String orderId);
 
     Optional<Event> findTop1ByTransactionIdOrderByCreatedAtDesc(String orderId);
 
+    @Query(value = "{ 'orderId': ?0 }", fields = SUMMARY_FIELDS, sort = "{ 'createdAt': -1 }")
+    List<EventSummary> findSummariesByOrderId(String orderId, Pageable pageable);
+
+    @Query(value = "{ 'transactionId': ?0 }", fields = SUMMARY_FIELDS, sort = "{ 'createdAt': -1 }")
+    List<EventSummary> findSummariesByTransactionId(String transactionId, Pageable pageable);
+
 }
@@ -0,0 +1,13 @@
+package br.com.microservices.choreography.orderservice.core.repository;
+
+import br.com.microservices.choreography.orderservice.core.document.Event;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveEventRepository extends ReactiveMongoRepository<Event, String> {
+
+    Mono<Event> findTop1ByOrderIdOrderByCreatedAtDesc(String orderId);
+
+    Mono<Event> findTop1ByTransactionIdOrderByCreatedAtDesc(String transactionId);
+
+}
@@ -0,0 +1,11 @@
+package br.com.microservices.choreography.orderservice.core.repository;
+
+import br.com.microservices.choreography.orderservice.core.document.SagaState;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveSagaStateRepository extends ReactiveMongoRepository<SagaState, String> {
+
+    Mono<SagaState> findByTransactionId(String transactionId);
+
+}
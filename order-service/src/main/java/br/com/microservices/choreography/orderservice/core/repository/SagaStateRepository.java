@@ -0,0 +1,12 @@
+package br.com.microservices.choreography.orderservice.core.repository;
+
+import br.com.microservices.choreography.orderservice.core.document.SagaState;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Optional;
+
+public interface SagaStateRepository extends MongoRepository<SagaState, String> {
+
+    Optional<SagaState> findByTransactionId(String transactionId);
+
+}
@@ -0,0 +1,229 @@
+package br.com.microservices.choreography.orderservice.core.service;
+
+import br.com.microservices.choreography.orderservice.config.exception.AdmissionRejectedException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+
+@Slf4j
+@Service
+public class AdmissionService {
+
+    private static final Long LAG_QUERY_TIMEOUT_MS = 5000L;
+
+    private final AdminClient adminClient;
+    private final MeterRegistry meterRegistry;
+    private final Long maxInFlight;
+    private final Long maxConsumerLag;
+    private final Long maxWaitMs;
+    private final Integer maxQueued;
+    private final Long retryAfterSeconds;
+    private final Long staleAfterMs;
+    private final Map<String, AtomicLong> consumerLag = new LinkedHashMap<>();
+    private final Map<String, Long> admittedOrders = new ConcurrentHashMap<>();
+    private final AtomicLong inFlightSagas = new AtomicLong();
+    private final AtomicLong queuedRequests = new AtomicLong();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition capacityAvailable = lock.newCondition();
+
+    public AdmissionService(KafkaAdmin kafkaAdmin,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.admission.max-in-flight}") Long maxInFlight,
+                            @Value("${app.admission.max-consumer-lag}") Long maxConsumerLag,
+                            @Value("${app.admission.max-wait-ms}") Long maxWaitMs,
+                            @Value("${app.admission.max-queued}") Integer maxQueued,
+                            @Value("${app.admission.retry-after-seconds}") Long retryAfterSeconds,
+                            @Value("${app.admission.stale-after-ms}") Long staleAfterMs,
+                            @Value("${app.admission.lag.consumer-groups}") List<String> consumerGroups) {
+        this.adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+        this.meterRegistry = meterRegistry;
+        this.maxInFlight = maxInFlight;
+        this.maxConsumerLag = maxConsumerLag;
+        this.maxWaitMs = maxWaitMs;
+        this.maxQueued = maxQueued;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.staleAfterMs = staleAfterMs;
+
+        meterRegistry.gauge("saga.admission.in-flight", inFlightSagas);
+        meterRegistry.gauge("saga.admission.queued", queuedRequests);
+        consumerGroups.forEach(group -> {
+            var lag = new AtomicLong();
+            consumerLag.put(group, lag);
+            Gauge.builder("saga.admission.consumer-lag", lag, AtomicLong::get)
+                    .tag("group", group)
+                    .register(meterRegistry);
+        });
+    }
+
+    // Started sagas count as in flight on the replica that accepted them until their completion is
+    // broadcast on saga-completed; above the thresholds a request waits up to max-wait-ms for capacity
+    // and is then rejected with 429.
+    public void admit(Collection<String> orderIds) {
+        var sagas = orderIds.size();
+        lock.lock();
+        try {
+            if (!hasCapacity(sagas)) {
+                awaitCapacity(sagas);
+            }
+            var admittedAt = System.currentTimeMillis();
+            orderIds.forEach(orderId -> admittedOrders.put(orderId, admittedAt));
+            inFlightSagas.set(admittedOrders.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Every replica sees every completion, so only the one that admitted the order releases it.
+    public void complete(String orderId) {
+        if (admittedOrders.containsKey(orderId)) {
+            release(List.of(orderId));
+        }
+    }
+
+    public void release(Collection<String> orderIds) {
+        lock.lock();
+        try {
+            admittedOrders.keySet().removeAll(orderIds);
+            inFlightSagas.set(admittedOrders.size());
+            capacityAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // A completion that never reached this replica (a lost broadcast, a saga stuck past its timeout) would
+    // hold its slot forever, so admissions older than stale-after-ms are released.
+    @Scheduled(fixedDelayString = "${app.admission.sweep-interval-ms}")
+    public void releaseStale() {
+        var staleBefore = System.currentTimeMillis() - staleAfterMs;
+        var stale = admittedOrders
+                .entrySet()
+                .stream()
+                .filter(admission -> admission.getValue() < staleBefore)
+                .map(Map.Entry::getKey)
+                .toList();
+        if (stale.isEmpty()) {
+            return;
+        }
+        release(stale);
+        meterRegistry.counter("saga.admission.released-stale").increment(stale.size());
+        log.warn("Released {} admissions with no completion after {} ms", stale.size(), staleAfterMs);
+    }
+
+    @Scheduled(fixedDelayString = "${app.admission.lag.refresh-interval-ms}")
+    public void refreshConsumerLag() {
+        consumerLag.forEach((group, lag) -> {
+            try {
+                lag.set(fetchConsumerLag(group));
+            } catch (ExecutionException | TimeoutException ex) {
+                log.warn("Could not refresh consumer lag for group {}: {}", group, ex.getMessage());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        lock.lock();
+        try {
+            capacityAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        adminClient.close();
+    }
+
+    private void awaitCapacity(int sagas) {
+        if (maxWaitMs <= 0 || queuedRequests.get() >= maxQueued) {
+            reject();
+        }
+        queuedRequests.incrementAndGet();
+        try {
+            var remainingNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+            while (!hasCapacity(sagas)) {
+                if (remainingNanos <= 0) {
+                    reject();
+                }
+                remainingNanos = capacityAvailable.awaitNanos(remainingNanos);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            reject();
+        } finally {
+            queuedRequests.decrementAndGet();
+        }
+    }
+
+    private boolean hasCapacity(int sagas) {
+        var inFlight = inFlightSagas.get();
+        return (inFlight == 0 || inFlight + sagas <= maxInFlight) && getConsumerLag() <= maxConsumerLag;
+    }
+
+    private long getConsumerLag() {
+        return consumerLag
+                .values()
+                .stream()
+                .mapToLong(AtomicLong::get)
+                .sum();
+    }
+
+    private void reject() {
+        var reason = getConsumerLag() > maxConsumerLag ? "consumer-lag" : "in-flight";
+        meterRegistry.counter("saga.admission.rejected", "reason", reason).increment();
+        throw new AdmissionRejectedException(
+                "Too many orders in progress (%d in flight, %d records of downstream lag), try again later."
+                        .formatted(inFlightSagas.get(), getConsumerLag()),
+                retryAfterSeconds);
+    }
+
+    private long fetchConsumerLag(String group) throws ExecutionException, InterruptedException, TimeoutException {
+        Map<TopicPartition, OffsetAndMetadata> committed = adminClient
+                .listConsumerGroupOffsets(group)
+                .partitionsToOffsetAndMetadata()
+                .get(LAG_QUERY_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+        if (committed.isEmpty()) {
+            return 0;
+        }
+
+        var latest = adminClient
+                .listOffsets(committed.keySet().stream().collect(toMap(identity(), partition -> OffsetSpec.latest())))
+                .all()
+                .get(LAG_QUERY_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+        return committed
+                .entrySet()
+                .stream()
+                .filter(entry -> Objects.nonNull(entry.getValue()) && latest.containsKey(entry.getKey()))
+                .mapToLong(entry -> Math.max(0, latest.get(entry.getKey()).offset() - entry.getValue().offset()))
+                .sum();
+    }
+
+}
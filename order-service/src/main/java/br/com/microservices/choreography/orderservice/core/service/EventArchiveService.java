@@ -0,0 +1,113 @@
+package br.com.microservices.choreography.orderservice.core.service;
+
+import br.com.microservices.choreography.orderservice.core.document.Event;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+// Finished sagas are moved out of the hot event collection after app.archive.after-minutes, which
+// keeps its working set (documents and indexes) bounded by the saga rate instead of by history.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EventArchiveService {
+
+    public static final String ARCHIVE_COLLECTION = "event_archive";
+
+    private static final String FINISHED_AT = "finishedAt";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.archive.enabled}")
+    private Boolean enabled;
+
+    @Value("${app.archive.after-minutes}")
+    private Long afterMinutes;
+
+    @Value("${app.archive.batch-size}")
+    private Integer batchSize;
+
+    @Value("${app.archive.retention-days}")
+    private Long retentionDays;
+
+    @PostConstruct
+    public void ensureArchiveIndexes() {
+        var indexOps = mongoTemplate.indexOps(ARCHIVE_COLLECTION);
+        new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(Event.class)
+                .forEach(index -> {
+                    if (retentionDays <= 0 || !index.getIndexKeys().containsKey(FINISHED_AT)) {
+                        indexOps.ensureIndex(index);
+                    }
+                });
+        if (retentionDays > 0) {
+            indexOps.ensureIndex(new Index()
+                    .on(FINISHED_AT, Sort.Direction.ASC)
+                    .expire(Duration.ofDays(retentionDays)));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.archive.interval-ms}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        var threshold = LocalDateTime.now().minusMinutes(afterMinutes);
+        var archived = 0;
+        List<Event> batch;
+        do {
+            batch = mongoTemplate.find(
+                    query(where(FINISHED_AT).lt(threshold)).with(Sort.by(FINISHED_AT)).limit(batchSize),
+                    Event.class
+            );
+            if (!batch.isEmpty()) {
+                moveToArchive(batch);
+                archived += batch.size();
+            }
+        } while (batch.size() == batchSize);
+
+        if (archived > 0) {
+            log.info("Archived {} finished saga events older than {}", archived, threshold);
+        }
+    }
+
+    public Optional<Event> findLatest(String field, String value) {
+        return Optional.ofNullable(mongoTemplate.findOne(
+                query(where(field).is(value)).with(Sort.by(Sort.Direction.DESC, "createdAt")),
+                Event.class,
+                ARCHIVE_COLLECTION
+        ));
+    }
+
+    // Upserting by id keeps the copy idempotent, so a batch interrupted before the delete is simply moved again.
+    private void moveToArchive(List<Event> batch) {
+        var bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Event.class, ARCHIVE_COLLECTION);
+        batch.forEach(event -> bulk.replaceOne(
+                query(where("id").is(event.getId())),
+                event,
+                FindAndReplaceOptions.options().upsert()
+        ));
+        bulk.execute();
+
+        var ids = batch.stream().map(Event::getId).toList();
+        mongoTemplate.remove(query(where("id").in(ids)), Event.class);
+    }
+
+}
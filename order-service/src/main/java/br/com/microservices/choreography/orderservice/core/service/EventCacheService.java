@@ -0,0 +1,75 @@
+package br.com.microservices.choreography.orderservice.core.service;
+
+import br.com.microservices.choreography.orderservice.core.document.Event;
+import br.com.microservices.choreography.orderservice.core.dto.EventFilters;
+import br.com.microservices.choreography.orderservice.core.dto.EventSummary;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import static org.springframework.util.ObjectUtils.isEmpty;
+
+// The latest event of a saga only changes when it starts and when it ends. This replica writes through on both;
+// other replicas drop their copy when the saga-completed broadcast arrives, and expire-after-write bounds what
+// is left (history deltas appended elsewhere in delta mode).
+@Service
+public class EventCacheService {
+
+    private static final String ORDER_KEY = "order:%s";
+    private static final String TRANSACTION_KEY = "transaction:%s";
+
+    private final Cache<String, Event> cache;
+
+    public EventCacheService(MeterRegistry meterRegistry,
+                             @Value("${app.cache.events.max-size}") Long maxSize,
+                             @Value("${app.cache.events.expire-after-write-ms}") Long expireAfterWriteMs) {
+        this.cache = Caffeine
+                .newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "saga.events");
+    }
+
+    public Event get(EventFilters filters, Supplier<Event> loader) {
+        return cache.get(getKey(filters), ignored -> loader.get());
+    }
+
+    public Event getIfPresent(EventFilters filters) {
+        return cache.getIfPresent(getKey(filters));
+    }
+
+    public void put(Event event) {
+        cache.put(ORDER_KEY.formatted(event.getOrderId()), event);
+        cache.put(TRANSACTION_KEY.formatted(event.getTransactionId()), event);
+    }
+
+    public void evict(String orderId, String transactionId) {
+        cache.invalidate(ORDER_KEY.formatted(orderId));
+        cache.invalidate(TRANSACTION_KEY.formatted(transactionId));
+    }
+
+    // The replica that processed the ending already holds the final event, identified by its createdAt.
+    public void evictStale(EventSummary summary) {
+        var cached = cache.getIfPresent(ORDER_KEY.formatted(summary.orderId()));
+        if (cached == null || !Objects.equals(cached.getCreatedAt(), summary.createdAt())) {
+            evict(summary.orderId(), summary.transactionId());
+        }
+    }
+
+    private String getKey(EventFilters filters) {
+        return isEmpty(filters.getOrderId())
+                ? TRANSACTION_KEY.formatted(filters.getTransactionId())
+                : ORDER_KEY.formatted(filters.getOrderId());
+    }
+
+}
@@ -2,18 +2,45 @@ package br.com.microservices.choreography.orderservice.core.service;
 
 import br.com.microservices.choreography.orderservice.config.exception.ValidationException;
 import br.com.microservices.choreography.orderservice.core.document.Event;
+import br.com.microservices.choreography.orderservice.core.document.History;
 import br.com.microservices.choreography.orderservice.core.document.Order;
+import br.com.microservices.choreography.orderservice.core.dto.EventCursor;
 import br.com.microservices.choreography.orderservice.core.dto.EventFilters;
+import br.com.microservices.choreography.orderservice.core.dto.EventPage;
+import br.com.microservices.choreography.orderservice.core.dto.EventSummary;
+import br.com.microservices.choreography.orderservice.core.dto.HistoryDelta;
 import br.com.microservices.choreography.orderservice.core.enums.ESagaStatus;
 import br.com.microservices.choreography.orderservice.core.repository.EventRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 import static br.com.microservices.choreography.orderservice.core.enums.ESagaStatus.*;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
 import static org.springframework.util.ObjectUtils.isEmpty;
 
 @Slf4j
@@ -22,42 +49,150 @@ import static org.springframework.util.ObjectUtils.isEmpty;
 public class EventService {
 
     private final EventRepository repository;
+    private final MongoTemplate mongoTemplate;
+    private final SagaCompletionService sagaCompletionService;
+    private final EventArchiveService eventArchiveService;
+    private final SagaStateService sagaStateService;
+    private final EventCacheService eventCacheService;
+    private final SagaTimeoutService sagaTimeoutService;
+    private final ObjectMapper objectMapper;
 
     private static final String CURRENT_SERVICE = "ORDER_SERVICE";
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+    private static final int NDJSON_SEPARATOR = '\n';
+
+    @Value("${app.history.delta-enabled}")
+    private Boolean historyDeltaEnabled;
+
+    @Value("${app.events.page.default-limit}")
+    private Integer defaultPageSize;
+
+    @Value("${app.events.page.max-limit}")
+    private Integer maxPageSize;
+
+    @Value("${app.events.stream.batch-size}")
+    private Integer streamBatchSize;
 
     public Event save(Event event) {
         return repository.save(event);
     }
 
     public void notifyEnding(Event event) {
-        event.setSource(CURRENT_SERVICE);
-        event.setOrderId(event.getOrderId());
-        event.setCreatedAt(LocalDateTime.now());
+        prepareEnding(event);
+        sagaStateService.finish(event);
+        if (historyDeltaEnabled) {
+            mongoTemplate.upsert(query(where("id").is(event.getId())), buildEndingUpdate(event), Event.class);
+        } else {
+            save(event);
+        }
+        completeEnding(event);
+    }
 
-        setEndingHistory(event);
-        save(event);
+    // A whole poll of endings costs one unordered bulk write per collection. An ending whose saga_state
+    // write failed is left out of the event write, and one is completed (cache, broadcast) only when
+    // both of its writes were acknowledged; the positions of the failed ones are returned untouched
+    // by any partial write, so they can be replayed on their own.
+    public SortedSet<Integer> notifyEndings(List<Event> events) {
+        events.forEach(this::prepareEnding);
+        var failed = new TreeSet<>(sagaStateService.finishAll(events));
 
-        log.info("Order {} with saga notified! TransactionId: {}", event.getOrderId(), event.getTransactionId());
+        var written = new ArrayList<Integer>(events.size());
+        var bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Event.class);
+        for (var index = 0; index < events.size(); index++) {
+            if (failed.contains(index)) {
+                continue;
+            }
+            var event = events.get(index);
+            if (historyDeltaEnabled) {
+                bulk.upsert(query(where("id").is(event.getId())), buildEndingUpdate(event));
+            } else {
+                bulk.replaceOne(query(where("id").is(event.getId())), event, FindAndReplaceOptions.options().upsert());
+            }
+            written.add(index);
+        }
+        if (!written.isEmpty()) {
+            try {
+                bulk.execute();
+            } catch (BulkOperationException ex) {
+                ex.getErrors().forEach(error -> failed.add(written.get(error.getIndex())));
+            }
+        }
+
+        for (var index = 0; index < events.size(); index++) {
+            if (!failed.contains(index)) {
+                completeEnding(events.get(index));
+            }
+        }
+        return failed;
+    }
+
+    public void appendHistory(HistoryDelta delta) {
+        mongoTemplate.upsert(
+                query(where("id").is(delta.getEventId())),
+                pushHistory(new Update(), delta.getHistory()),
+                Event.class
+        );
+        eventCacheService.evict(delta.getOrderId(), delta.getTransactionId());
+        log.info("Appended {} history entries to order {}", delta.getHistory().size(), delta.getOrderId());
     }
 
-    public List<Event> findAll() {
-        return repository.findAllByOrderByCreatedAtDesc();
+    public EventPage findAll(String cursor, Integer limit) {
+        var pageSize = resolvePageSize(limit);
+        return toPage(mongoTemplate.find(buildPageQuery(cursor, pageSize), Event.class), pageSize);
+    }
+
+    // Writes one event per line straight from the Mongo cursor, so only the current batch is held in memory.
+    public void streamAll(OutputStream outputStream) throws IOException {
+        var writer = objectMapper
+                .writerFor(Event.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (var events = mongoTemplate.stream(buildStreamQuery(), Event.class)) {
+            var iterator = events.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(outputStream, iterator.next());
+                outputStream.write(NDJSON_SEPARATOR);
+            }
+        }
+        outputStream.flush();
     }
 
     public Event findByFilters(EventFilters filters) {
         filters.isValid();
 
+        return eventCacheService.get(filters, () -> sagaStateService.findByFilters(filters)
+                .flatMap(state -> findById(state.getEventId()))
+                .orElseGet(() -> findLatestByFilters(filters)));
+    }
+
+    public void evictCached(Event event) {
+        eventCacheService.evict(event.getOrderId(), event.getTransactionId());
+    }
+
+    public void evictStale(EventSummary summary) {
+        eventCacheService.evictStale(summary);
+    }
+
+    public EventSummary findSummaryByFilters(EventFilters filters) {
+        filters.isValid();
+
+        var latest = PageRequest.of(0, 1);
         if (!isEmpty(filters.getOrderId())) {
-            return repository.findTop1ByOrderIdOrderByCreatedAtDesc(filters.getOrderId())
-                    .orElseThrow(() -> new ValidationException("Event not found by orderId."));
+            return repository.findSummariesByOrderId(filters.getOrderId(), latest)
+                    .stream()
+                    .findFirst()
+                    .orElseThrow(() -> notFound(filters));
         } else {
-            return repository.findTop1ByTransactionIdOrderByCreatedAtDesc(filters.getTransactionId())
-                    .orElseThrow(() -> new ValidationException("Event not found by transactionId."));
+            return repository.findSummariesByTransactionId(filters.getTransactionId(), latest)
+                    .stream()
+                    .findFirst()
+                    .orElseThrow(() -> notFound(filters));
         }
     }
 
     public Event createEvent(Order order) {
         var event = Event.builder()
+                .id(new ObjectId().toHexString())
                 .source(CURRENT_SERVICE)
                 .status(SUCCESS)
                 .orderId(order.getId())
@@ -67,7 +202,8 @@ public class EventService {
                 .build();
 
         event.addHistory("Saga started!");
-        return save(event);
+        eventCacheService.put(event);
+        return event;
     }
 
     public void setEndingHistory(Event event) {
@@ -80,4 +216,105 @@ public class EventService {
         }
     }
 
+    void prepareEnding(Event event) {
+        event.setSource(CURRENT_SERVICE);
+        event.setOrderId(event.getOrderId());
+        event.setCreatedAt(LocalDateTime.now());
+        event.setFinishedAt(event.getCreatedAt());
+
+        setEndingHistory(event);
+    }
+
+    void completeEnding(Event event) {
+        sagaTimeoutService.cancel(event.getOrderId());
+        eventCacheService.put(event);
+        sagaCompletionService.publish(event);
+
+        log.info("Order {} with saga notified! TransactionId: {}", event.getOrderId(), event.getTransactionId());
+    }
+
+    boolean isHistoryDeltaEnabled() {
+        return historyDeltaEnabled;
+    }
+
+    // The history deltas and the ending notification arrive on different topics, so both
+    // sides push into the stored event and let Mongo keep the entries in chronological order.
+    Update buildEndingUpdate(Event event) {
+        var update = new Update()
+                .set("transactionId", event.getTransactionId())
+                .set("orderId", event.getOrderId())
+                .set("payload", event.getPayload())
+                .set("source", event.getSource())
+                .set("status", event.getStatus())
+                .set("createdAt", event.getCreatedAt())
+                .set("finishedAt", event.getFinishedAt());
+
+        return pushHistory(update, event.getEventHistory());
+    }
+
+    Query buildPageQuery(String cursor, int pageSize) {
+        var query = isEmpty(cursor) ? new Query() : query(after(EventCursor.decode(cursor)));
+        return query.with(KEYSET_SORT).limit(pageSize + 1);
+    }
+
+    Query buildStreamQuery() {
+        return new Query().with(KEYSET_SORT).cursorBatchSize(streamBatchSize);
+    }
+
+    EventPage toPage(List<Event> events, int pageSize) {
+        if (events.size() <= pageSize) {
+            return new EventPage(events, null);
+        }
+        var content = events.subList(0, pageSize);
+        return new EventPage(content, EventCursor.of(content.getLast()).encode());
+    }
+
+    int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1 || limit > maxPageSize) {
+            throw new ValidationException("Limit must be between 1 and %d.".formatted(maxPageSize));
+        }
+        return limit;
+    }
+
+    Update pushHistory(Update update, List<History> history) {
+        return update
+                .push("eventHistory")
+                .sort(Sort.by("createdAt"))
+                .each(history.toArray());
+    }
+
+    ValidationException notFound(EventFilters filters) {
+        return isEmpty(filters.getOrderId())
+                ? new ValidationException("Event not found by transactionId.")
+                : new ValidationException("Event not found by orderId.");
+    }
+
+    private Optional<Event> findById(String id) {
+        return repository.findById(id)
+                .or(() -> eventArchiveService.findLatest("id", id));
+    }
+
+    // Sagas started before the saga_state view existed have no state document.
+    private Event findLatestByFilters(EventFilters filters) {
+        if (!isEmpty(filters.getOrderId())) {
+            return repository.findTop1ByOrderIdOrderByCreatedAtDesc(filters.getOrderId())
+                    .or(() -> eventArchiveService.findLatest("orderId", filters.getOrderId()))
+                    .orElseThrow(() -> notFound(filters));
+        } else {
+            return repository.findTop1ByTransactionIdOrderByCreatedAtDesc(filters.getTransactionId())
+                    .or(() -> eventArchiveService.findLatest("transactionId", filters.getTransactionId()))
+                    .orElseThrow(() -> notFound(filters));
+        }
+    }
+
+    private Criteria after(EventCursor cursor) {
+        return new Criteria().orOperator(
+                where("createdAt").lt(cursor.createdAt()),
+                where("createdAt").is(cursor.createdAt()).and("id").lt(cursor.id())
+        );
+    }
+
 }
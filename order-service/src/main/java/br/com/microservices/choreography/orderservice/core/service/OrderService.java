@@ -1,42 +1,155 @@
 package br.com.microservices.choreography.orderservice.core.service;
 
+import br.com.microservices.choreography.orderservice.config.exception.ValidationException;
 import br.com.microservices.choreography.orderservice.core.document.Event;
 import br.com.microservices.choreography.orderservice.core.document.Order;
+import br.com.microservices.choreography.orderservice.core.dto.OrderBatchItem;
 import br.com.microservices.choreography.orderservice.core.dto.OrderRequest;
-import br.com.microservices.choreography.orderservice.core.producer.SagaProducer;
-import br.com.microservices.choreography.orderservice.core.repository.OrderRepository;
-import br.com.microservices.choreography.orderservice.core.utils.JsonUtil;
+import br.com.microservices.choreography.sagacore.core.id.IdGenerator;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.Instant;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.util.ObjectUtils.isEmpty;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
 
-    private static final String TRANSACTION_ID_PATTERN = "%s_%s";
+    private static final int NDJSON_SEPARATOR = '\n';
 
-    private final OrderRepository repository;
-    private final JsonUtil jsonUtil;
-    private final SagaProducer producer;
     private final EventService eventService;
+    private final OutboxService outboxService;
+    private final AdmissionService admissionService;
+    private final IdGenerator idGenerator;
+    private final SagaTimeoutService sagaTimeoutService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.orders.batch.max-size}")
+    private Integer maxBatchSize;
+
+    @Value("${app.orders.batch.stream-chunk-size}")
+    private Integer streamChunkSize;
 
     public Order createOrder(OrderRequest orderRequest) {
-        var order = Order.builder()
+        var order = buildOrder(orderRequest);
+        admissionService.admit(List.of(order.getId()));
+        var event = eventService.createEvent(order);
+        try {
+            outboxService.save(event);
+            sagaTimeoutService.register(event);
+        } catch (RuntimeException ex) {
+            eventService.evictCached(event);
+            admissionService.release(List.of(order.getId()));
+            throw ex;
+        }
+        return event.getPayload();
+    }
+
+    // The whole batch is validated before anything is written, then lands in the outbox with a single
+    // insertMany; the relay persists orders and events in bulk and pipelines the sends for it.
+    public List<OrderBatchItem> createOrders(List<OrderRequest> orderRequests) {
+        validateBatch(orderRequests);
+        var orders = orderRequests
+                .stream()
+                .map(this::buildOrder)
+                .toList();
+        admissionService.admit(toOrderIds(orders));
+        var events = orders
+                .stream()
+                .map(eventService::createEvent)
+                .toList();
+        try {
+            outboxService.saveAll(events);
+            sagaTimeoutService.registerAll(events);
+        } catch (RuntimeException ex) {
+            events.forEach(eventService::evictCached);
+            admissionService.release(toOrderIds(orders));
+            throw ex;
+        }
+        return toBatchItems(events);
+    }
+
+    // NDJSON in, NDJSON out: orders are read and submitted in chunks, so the request size is not bounded by
+    // memory. Results of every chunk are written before the next one is read; if a chunk fails, the lines
+    // already written are the orders that were accepted.
+    public void createOrders(InputStream inputStream, OutputStream outputStream) throws IOException {
+        var writer = objectMapper
+                .writerFor(OrderBatchItem.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (MappingIterator<OrderRequest> orderRequests = objectMapper.readerFor(OrderRequest.class).readValues(inputStream)) {
+            var chunk = new ArrayList<OrderRequest>(streamChunkSize);
+            while (orderRequests.hasNext()) {
+                chunk.add(orderRequests.next());
+                if (chunk.size() == streamChunkSize) {
+                    writeItems(writer, outputStream, createOrders(chunk));
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeItems(writer, outputStream, createOrders(chunk));
+            }
+        }
+    }
+
+    Order buildOrder(OrderRequest orderRequest) {
+        return Order.builder()
+                .id(idGenerator.nextId())
                 .products(orderRequest.getProducts())
                 .createdAt(LocalDateTime.now())
-                .transactionId(
-                        String.format(TRANSACTION_ID_PATTERN,
-                                Instant.now().toEpochMilli(), UUID.randomUUID())
-                )
+                .transactionId(idGenerator.nextId())
                 .build();
+    }
+
+    void validateBatch(List<OrderRequest> orderRequests) {
+        if (isEmpty(orderRequests)) {
+            throw new ValidationException("At least one order must be informed.");
+        }
+        if (orderRequests.size() > maxBatchSize) {
+            throw new ValidationException("A batch accepts at most %d orders.".formatted(maxBatchSize));
+        }
+        for (var index = 0; index < orderRequests.size(); index++) {
+            var orderRequest = orderRequests.get(index);
+            if (orderRequest == null || isEmpty(orderRequest.getProducts())) {
+                throw new ValidationException("Order at position %d has no products.".formatted(index));
+            }
+        }
+    }
+
+    List<String> toOrderIds(List<Order> orders) {
+        return orders
+                .stream()
+                .map(Order::getId)
+                .toList();
+    }
+
+    List<OrderBatchItem> toBatchItems(List<Event> events) {
+        return events
+                .stream()
+                .map(event -> new OrderBatchItem(event.getOrderId(), event.getTransactionId()))
+                .toList();
+    }
 
-        repository.save(order);
-        producer.sendEvent(jsonUtil.toJson(eventService.createEvent(order)));
-        return order;
+    private void writeItems(ObjectWriter writer, OutputStream outputStream, List<OrderBatchItem> items) throws IOException {
+        for (var item : items) {
+            writer.writeValue(outputStream, item);
+            outputStream.write(NDJSON_SEPARATOR);
+        }
+        outputStream.flush();
     }
 
 }
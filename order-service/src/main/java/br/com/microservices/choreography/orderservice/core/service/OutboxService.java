@@ -0,0 +1,158 @@
+package br.com.microservices.choreography.orderservice.core.service;
+
+import br.com.microservices.choreography.orderservice.core.document.Event;
+import br.com.microservices.choreography.orderservice.core.document.Order;
+import br.com.microservices.choreography.orderservice.core.document.Outbox;
+import br.com.microservices.choreography.orderservice.core.repository.OutboxRepository;
+import br.com.microservices.choreography.sagacore.core.producer.SagaProducer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    private final OutboxRepository repository;
+    private final MongoTemplate mongoTemplate;
+    private final SagaStateService sagaStateService;
+    private final SagaProducer<Event> producer;
+
+    @Value("${spring.kafka.topic.product-validation-start}")
+    private String productValidationStartTopic;
+
+    @Value("${app.outbox.batch-size}")
+    private Integer batchSize;
+
+    @Value("${app.outbox.lease-ms}")
+    private Long leaseMs;
+
+    @Value("${app.history.delta-enabled}")
+    private Boolean historyDeltaEnabled;
+
+    public void save(Event event) {
+        repository.insert(buildOutbox(event));
+    }
+
+    public void saveAll(List<Event> events) {
+        repository.insert(events.stream().map(this::buildOutbox).toList());
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval-ms}")
+    public void relay() {
+        List<Outbox> batch;
+        do {
+            batch = claimBatch();
+            if (!batch.isEmpty()) {
+                relay(batch);
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    private void relay(List<Outbox> batch) {
+        persistDocuments(batch);
+        if (historyDeltaEnabled) {
+            batch.forEach(outbox -> outbox.getEvent().setEventHistory(null));
+        }
+
+        List<String> sentIds = batch
+                .stream()
+                .map(outbox -> producer
+                        .sendEvent(outbox.getEvent(), productValidationStartTopic)
+                        .handle((result, ex) -> ex == null ? outbox.getId() : null))
+                .toList()
+                .stream()
+                .map(CompletableFuture::join)
+                .filter(Objects::nonNull)
+                .toList();
+
+        mongoTemplate.remove(query(where("id").in(sentIds)), Outbox.class);
+        log.info("Relayed {} of {} outbox events to the saga", sentIds.size(), batch.size());
+    }
+
+    private List<Outbox> claimBatch() {
+        var now = LocalDateTime.now();
+        var claimToken = UUID.randomUUID().toString();
+        var claimable = new Criteria().orOperator(
+                where("claimedAt").is(null),
+                where("claimedAt").lt(now.minusNanos(leaseMs * 1_000_000))
+        );
+
+        List<String> ids = mongoTemplate
+                .find(query(claimable).with(Sort.by("createdAt")).limit(batchSize), Outbox.class)
+                .stream()
+                .map(Outbox::getId)
+                .toList();
+
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        mongoTemplate.updateMulti(
+                query(new Criteria().andOperator(where("id").in(ids), claimable)),
+                new Update().set("claimToken", claimToken).set("claimedAt", now),
+                Outbox.class
+        );
+
+        return mongoTemplate.find(query(where("claimToken").is(claimToken)), Outbox.class);
+    }
+
+    // The outbox insert is the only write of an order request; orders, events and the initial saga_state
+    // are all created from it here, each write idempotent, so a relay retried after a partial failure
+    // converges instead of leaving a saga_state without an outbox entry or the reverse.
+    private void persistDocuments(List<Outbox> batch) {
+        var events = batch
+                .stream()
+                .map(Outbox::getEvent)
+                .toList();
+
+        insertIfAbsent(Order.class, events.stream().map(Event::getPayload).toList());
+        insertIfAbsent(Event.class, events);
+        sagaStateService.startAll(events);
+    }
+
+    private <T> void insertIfAbsent(Class<T> documentClass, List<T> documents) {
+        try {
+            mongoTemplate
+                    .bulkOps(BulkOperations.BulkMode.UNORDERED, documentClass)
+                    .insert(documents)
+                    .execute();
+        } catch (BulkOperationException ex) {
+            var alreadyInserted = ex.getErrors()
+                    .stream()
+                    .allMatch(error -> error.getCode() == DUPLICATE_KEY_ERROR);
+            if (!alreadyInserted) {
+                throw ex;
+            }
+        }
+    }
+
+    Outbox buildOutbox(Event event) {
+        return Outbox.builder()
+                .id(event.getId())
+                .event(event)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+}
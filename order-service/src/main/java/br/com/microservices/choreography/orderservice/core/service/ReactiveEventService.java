@@ -0,0 +1,136 @@
+package br.com.microservices.choreography.orderservice.core.service;
+
+import br.com.microservices.choreography.orderservice.config.exception.ValidationException;
+import br.com.microservices.choreography.orderservice.core.document.Event;
+import br.com.microservices.choreography.orderservice.core.document.SagaState;
+import br.com.microservices.choreography.orderservice.core.dto.EventFilters;
+import br.com.microservices.choreography.orderservice.core.dto.EventPage;
+import br.com.microservices.choreography.orderservice.core.dto.EventSummary;
+import br.com.microservices.choreography.orderservice.core.dto.HistoryDelta;
+import br.com.microservices.choreography.orderservice.core.repository.ReactiveEventRepository;
+import br.com.microservices.choreography.orderservice.core.repository.ReactiveSagaStateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static br.com.microservices.choreography.orderservice.core.service.EventArchiveService.ARCHIVE_COLLECTION;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+import static org.springframework.util.ObjectUtils.isEmpty;
+
+// Reactive counterpart of EventService: same queries, updates and side effects, issued through the
+// reactive Mongo driver so no thread waits on the database.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveEventService {
+
+    private final ReactiveEventRepository repository;
+    private final ReactiveSagaStateRepository sagaStateRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final EventService eventService;
+    private final SagaStateService sagaStateService;
+    private final EventCacheService eventCacheService;
+
+    public Mono<Void> notifyEnding(Event event) {
+        eventService.prepareEnding(event);
+        var saveEvent = eventService.isHistoryDeltaEnabled()
+                ? mongoTemplate.upsert(query(where("id").is(event.getId())), eventService.buildEndingUpdate(event), Event.class).then()
+                : repository.save(event).then();
+
+        return mongoTemplate
+                .upsert(query(where("orderId").is(event.getOrderId())), sagaStateService.buildFinish(event), SagaState.class)
+                .then(saveEvent)
+                .doOnSuccess(ignored -> eventService.completeEnding(event));
+    }
+
+    public Mono<Void> appendHistory(HistoryDelta delta) {
+        return mongoTemplate
+                .upsert(query(where("id").is(delta.getEventId())), eventService.pushHistory(new Update(), delta.getHistory()), Event.class)
+                .doOnSuccess(ignored -> {
+                    eventCacheService.evict(delta.getOrderId(), delta.getTransactionId());
+                    log.info("Appended {} history entries to order {}", delta.getHistory().size(), delta.getOrderId());
+                })
+                .then();
+    }
+
+    public Mono<Event> findByFilters(EventFilters filters) {
+        filters.isValid();
+
+        var cached = eventCacheService.getIfPresent(filters);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return findState(filters)
+                .flatMap(state -> findById(state.getEventId()))
+                .switchIfEmpty(Mono.defer(() -> findLatest(filters)))
+                .switchIfEmpty(Mono.error(() -> eventService.notFound(filters)))
+                .doOnNext(eventCacheService::put);
+    }
+
+    public Mono<EventSummary> findSummaryByFilters(EventFilters filters) {
+        filters.isValid();
+
+        var query = latest(filters);
+        query.fields().exclude("_id").include("orderId", "transactionId", "source", "status", "createdAt");
+        return mongoTemplate
+                .findOne(query, EventSummary.class, mongoTemplate.getCollectionName(Event.class))
+                .switchIfEmpty(Mono.error(() -> eventService.notFound(filters)));
+    }
+
+    public Mono<SagaState> findStateByFilters(EventFilters filters) {
+        filters.isValid();
+
+        return findState(filters)
+                .switchIfEmpty(Mono.error(() -> new ValidationException("Saga state not found.")));
+    }
+
+    public Mono<EventPage> findAll(String cursor, Integer limit) {
+        var pageSize = eventService.resolvePageSize(limit);
+        return mongoTemplate
+                .find(eventService.buildPageQuery(cursor, pageSize), Event.class)
+                .collectList()
+                .map(events -> eventService.toPage(events, pageSize));
+    }
+
+    // Backed by the driver's cursor with demand-driven batches, so heap use does not grow with the collection.
+    public Flux<Event> streamAll() {
+        return mongoTemplate.find(eventService.buildStreamQuery(), Event.class);
+    }
+
+    private Mono<SagaState> findState(EventFilters filters) {
+        return isEmpty(filters.getOrderId())
+                ? sagaStateRepository.findByTransactionId(filters.getTransactionId())
+                : sagaStateRepository.findById(filters.getOrderId());
+    }
+
+    private Mono<Event> findById(String id) {
+        return repository
+                .findById(id)
+                .switchIfEmpty(Mono.defer(() -> mongoTemplate.findById(id, Event.class, ARCHIVE_COLLECTION)));
+    }
+
+    // Sagas started before the saga_state view existed have no state document.
+    private Mono<Event> findLatest(EventFilters filters) {
+        var hot = isEmpty(filters.getOrderId())
+                ? repository.findTop1ByTransactionIdOrderByCreatedAtDesc(filters.getTransactionId())
+                : repository.findTop1ByOrderIdOrderByCreatedAtDesc(filters.getOrderId());
+        return hot.switchIfEmpty(Mono.defer(() -> mongoTemplate.findOne(latest(filters), Event.class, ARCHIVE_COLLECTION)));
+    }
+
+    private Query latest(EventFilters filters) {
+        var criteria = isEmpty(filters.getOrderId())
+                ? where("transactionId").is(filters.getTransactionId())
+                : where("orderId").is(filters.getOrderId());
+        return query(criteria).with(Sort.by(Sort.Direction.DESC, "createdAt"));
+    }
+
+}
@@ -0,0 +1,85 @@
+package br.com.microservices.choreography.orderservice.core.service;
+
+import br.com.microservices.choreography.orderservice.core.document.Event;
+import br.com.microservices.choreography.orderservice.core.document.Order;
+import br.com.microservices.choreography.orderservice.core.dto.OrderBatchItem;
+import br.com.microservices.choreography.orderservice.core.dto.OrderRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+// Reactive counterpart of OrderService. Admission may wait up to app.admission.max-wait-ms for capacity,
+// so it runs on the bounded elastic scheduler instead of the event loop.
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveOrderService {
+
+    private final OrderService orderService;
+    private final EventService eventService;
+    private final OutboxService outboxService;
+    private final AdmissionService admissionService;
+    private final SagaTimeoutService sagaTimeoutService;
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Value("${app.orders.batch.stream-chunk-size}")
+    private Integer streamChunkSize;
+
+    public Mono<Order> createOrder(OrderRequest orderRequest) {
+        return Mono
+                .fromCallable(() -> {
+                    var order = orderService.buildOrder(orderRequest);
+                    admissionService.admit(List.of(order.getId()));
+                    return eventService.createEvent(order);
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(event -> start(List.of(event)).thenReturn(event.getPayload()));
+    }
+
+    public Mono<List<OrderBatchItem>> createOrders(List<OrderRequest> orderRequests) {
+        return Mono
+                .fromCallable(() -> {
+                    orderService.validateBatch(orderRequests);
+                    var orders = orderRequests
+                            .stream()
+                            .map(orderService::buildOrder)
+                            .toList();
+                    admissionService.admit(orderService.toOrderIds(orders));
+                    return orders
+                            .stream()
+                            .map(eventService::createEvent)
+                            .toList();
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(events -> start(events).thenReturn(orderService.toBatchItems(events)));
+    }
+
+    public Flux<OrderBatchItem> createOrders(Flux<OrderRequest> orderRequests) {
+        return orderRequests
+                .buffer(streamChunkSize)
+                .concatMap(chunk -> createOrders(chunk))
+                .flatMapIterable(items -> items);
+    }
+
+    private Mono<Void> start(List<Event> events) {
+        var outbox = events.stream().map(outboxService::buildOutbox).toList();
+
+        return mongoTemplate
+                .insertAll(outbox)
+                .then()
+                .doOnSuccess(ignored -> sagaTimeoutService.registerAll(events))
+                .onErrorResume(ex -> {
+                    events.forEach(eventService::evictCached);
+                    admissionService.release(events.stream().map(Event::getOrderId).toList());
+                    return Mono.error(ex);
+                });
+    }
+
+}
@@ -0,0 +1,159 @@
+package br.com.microservices.choreography.orderservice.core.service;
+
+import br.com.microservices.choreography.orderservice.core.document.Event;
+import br.com.microservices.choreography.orderservice.core.dto.EventSummary;
+import br.com.microservices.choreography.sagacore.core.producer.SagaProducer;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Every replica consumes the saga-completed topic with its own consumer group, so a client
+// subscribed on any replica is notified no matter which replica processed the ending.
+@Slf4j
+@Service
+public class SagaCompletionService {
+
+    private static final String COMPLETION_EVENT = "saga-completed";
+
+    private final SagaProducer<EventSummary> producer;
+    private final AdmissionService admissionService;
+    private final MeterRegistry meterRegistry;
+    private final String completedTopic;
+    private final Long timeoutMs;
+    private final Long retentionMs;
+    private final Map<String, List<Consumer<EventSummary>>> subscriptions = new ConcurrentHashMap<>();
+    private final Map<String, RecentCompletion> recentCompletions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriptionCount = new AtomicInteger();
+
+    public SagaCompletionService(SagaProducer<EventSummary> producer,
+                                 AdmissionService admissionService,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${spring.kafka.topic.saga-completed}") String completedTopic,
+                                 @Value("${app.completion.timeout-ms}") Long timeoutMs,
+                                 @Value("${app.completion.retention-ms}") Long retentionMs) {
+        this.producer = producer;
+        this.admissionService = admissionService;
+        this.meterRegistry = meterRegistry;
+        this.completedTopic = completedTopic;
+        this.timeoutMs = timeoutMs;
+        this.retentionMs = retentionMs;
+
+        meterRegistry.gauge("saga.completion.subscriptions", subscriptionCount);
+    }
+
+    // A broadcast the broker did not take still completes the saga on this replica, off the producer
+    // thread; replicas that admitted it release the slot once it goes stale.
+    public void publish(Event event) {
+        var summary = new EventSummary(
+                event.getOrderId(),
+                event.getTransactionId(),
+                event.getSource(),
+                event.getStatus(),
+                event.getCreatedAt()
+        );
+        producer.sendEvent(summary, completedTopic).exceptionallyAsync(ex -> {
+            log.error("Could not broadcast the completion of order {}, notifying this replica only",
+                    summary.orderId(), ex);
+            admissionService.complete(summary.orderId());
+            complete(summary);
+            return null;
+        });
+    }
+
+    public SseEmitter subscribe(String orderId) {
+        var emitter = new SseEmitter(timeoutMs);
+        Consumer<EventSummary> listener = summary -> send(emitter, summary);
+        emitter.onTimeout(() -> unsubscribe(orderId, listener));
+        emitter.onError(ex -> unsubscribe(orderId, listener));
+        emitter.onCompletion(() -> unsubscribe(orderId, listener));
+
+        register(orderId, listener);
+        return emitter;
+    }
+
+    // Reactive mode: completes with the summary, or empty once the subscription times out.
+    public Mono<EventSummary> awaitCompletion(String orderId) {
+        return Mono.<EventSummary>create(sink -> {
+                    Consumer<EventSummary> listener = sink::success;
+                    sink.onDispose(() -> unsubscribe(orderId, listener));
+                    register(orderId, listener);
+                })
+                .timeout(Duration.ofMillis(timeoutMs), Mono.empty());
+    }
+
+    public void complete(EventSummary summary) {
+        recentCompletions.put(summary.orderId(), new RecentCompletion(summary, System.currentTimeMillis()));
+
+        var listeners = subscriptions.remove(summary.orderId());
+        if (listeners == null) {
+            return;
+        }
+        subscriptionCount.addAndGet(-listeners.size());
+        listeners.forEach(listener -> listener.accept(summary));
+        meterRegistry.counter("saga.completion.notified").increment(listeners.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.completion.retention-ms}")
+    public void evictRecentCompletions() {
+        var expiredBefore = System.currentTimeMillis() - retentionMs;
+        recentCompletions.values().removeIf(completion -> completion.completedAt() < expiredBefore);
+    }
+
+    private void register(String orderId, Consumer<EventSummary> listener) {
+        subscriptions.compute(orderId, (key, listeners) -> {
+            var current = listeners == null ? new ArrayList<Consumer<EventSummary>>() : listeners;
+            current.add(listener);
+            return current;
+        });
+        subscriptionCount.incrementAndGet();
+
+        // The ending may have been consumed between the order creation and this subscription.
+        var recent = recentCompletions.get(orderId);
+        if (recent != null && unsubscribe(orderId, listener)) {
+            listener.accept(recent.summary());
+        }
+    }
+
+    private boolean unsubscribe(String orderId, Consumer<EventSummary> listener) {
+        var removed = new boolean[1];
+        subscriptions.computeIfPresent(orderId, (key, listeners) -> {
+            removed[0] = listeners.remove(listener);
+            return listeners.isEmpty() ? null : listeners;
+        });
+        if (removed[0]) {
+            subscriptionCount.decrementAndGet();
+        }
+        return removed[0];
+    }
+
+    private void send(SseEmitter emitter, EventSummary summary) {
+        try {
+            emitter.send(SseEmitter
+                    .event()
+                    .name(COMPLETION_EVENT)
+                    .data(summary, MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException ex) {
+            log.debug("Client for order {} disconnected before completion: {}", summary.orderId(), ex.getMessage());
+            emitter.completeWithError(ex);
+        }
+    }
+
+    private record RecentCompletion(EventSummary summary, long completedAt) {
+    }
+
+}
@@ -0,0 +1,110 @@
+package br.com.microservices.choreography.orderservice.core.service;
+
+import br.com.microservices.choreography.orderservice.config.exception.ValidationException;
+import br.com.microservices.choreography.orderservice.core.document.Event;
+import br.com.microservices.choreography.orderservice.core.document.SagaState;
+import br.com.microservices.choreography.orderservice.core.dto.EventFilters;
+import br.com.microservices.choreography.orderservice.core.enums.ESagaOutcome;
+import br.com.microservices.choreography.orderservice.core.repository.SagaStateRepository;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static br.com.microservices.choreography.orderservice.core.enums.ESagaStatus.SUCCESS;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+import static org.springframework.util.ObjectUtils.isEmpty;
+
+// One document per saga keyed by orderId (and uniquely indexed by transactionId), so status
+// lookups are a primary key read instead of a sort over the event collection.
+@Service
+@RequiredArgsConstructor
+public class SagaStateService {
+
+    private final SagaStateRepository repository;
+    private final MongoTemplate mongoTemplate;
+
+    // setOnInsert only: if the ending was somehow recorded first, the start must not overwrite it.
+    public void startAll(List<Event> events) {
+        var bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SagaState.class);
+        events.forEach(event -> bulk.upsert(query(where("orderId").is(event.getOrderId())), buildStart(event)));
+        bulk.execute();
+    }
+
+    public void finish(Event event) {
+        mongoTemplate.upsert(query(where("orderId").is(event.getOrderId())), buildFinish(event), SagaState.class);
+    }
+
+    // Unordered: the writes that succeeded stay applied, so only the positions that failed are returned.
+    public Set<Integer> finishAll(List<Event> events) {
+        var bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SagaState.class);
+        events.forEach(event -> bulk.upsert(query(where("orderId").is(event.getOrderId())), buildFinish(event)));
+        try {
+            bulk.execute();
+            return Set.of();
+        } catch (BulkOperationException ex) {
+            return ex.getErrors()
+                    .stream()
+                    .map(BulkWriteError::getIndex)
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    public Optional<SagaState> findByFilters(EventFilters filters) {
+        filters.isValid();
+
+        if (!isEmpty(filters.getOrderId())) {
+            return repository.findById(filters.getOrderId());
+        }
+        return repository.findByTransactionId(filters.getTransactionId());
+    }
+
+    public SagaState findStateByFilters(EventFilters filters) {
+        return findByFilters(filters)
+                .orElseThrow(() -> new ValidationException("Saga state not found."));
+    }
+
+    private Update buildStart(Event event) {
+        return new Update()
+                .setOnInsert("transactionId", event.getTransactionId())
+                .setOnInsert("eventId", event.getId())
+                .setOnInsert("status", event.getStatus())
+                .setOnInsert("source", event.getSource())
+                .setOnInsert("outcome", ESagaOutcome.IN_PROGRESS)
+                .setOnInsert("startedAt", event.getPayload().getCreatedAt());
+    }
+
+    // A pipeline update, so the outcome can depend on the stored one: a saga already TIMED_OUT keeps it,
+    // as its ending is the compensation the timeout started (or a late success the timeout overtook).
+    // $ifNull stands in for setOnInsert, which pipelines do not support.
+    AggregationUpdate buildFinish(Event event) {
+        var startedAt = event.getPayload().getCreatedAt();
+        var outcome = SUCCESS.equals(event.getStatus()) ? ESagaOutcome.COMPLETED : ESagaOutcome.FAILED;
+        return AggregationUpdate.update()
+                .set("transactionId").toValue(ConditionalOperators.ifNull("transactionId").then(event.getTransactionId()))
+                .set("startedAt").toValue(ConditionalOperators.ifNull("startedAt").then(startedAt))
+                .set("eventId").toValue(event.getId())
+                .set("status").toValue(event.getStatus().name())
+                .set("source").toValue(event.getSource())
+                .set("outcome").toValue(ConditionalOperators
+                        .when(ComparisonOperators.valueOf("outcome").equalToValue(ESagaOutcome.TIMED_OUT.name()))
+                        .then(ESagaOutcome.TIMED_OUT.name())
+                        .otherwise(outcome.name()))
+                .set("finishedAt").toValue(event.getFinishedAt())
+                .set("durationMs").toValue(Duration.between(startedAt, event.getFinishedAt()).toMillis());
+    }
+
+}
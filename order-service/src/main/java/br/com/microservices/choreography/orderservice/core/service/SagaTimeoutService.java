@@ -0,0 +1,180 @@
+package br.com.microservices.choreography.orderservice.core.service;
+
+import br.com.microservices.choreography.orderservice.core.document.Event;
+import br.com.microservices.choreography.orderservice.core.document.SagaState;
+import br.com.microservices.choreography.orderservice.core.enums.ESagaOutcome;
+import br.com.microservices.choreography.orderservice.core.repository.EventRepository;
+import br.com.microservices.choreography.sagacore.core.producer.SagaProducer;
+import br.com.microservices.choreography.sagacore.core.timeout.HashedTimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static br.com.microservices.choreography.orderservice.core.enums.ESagaStatus.ROLLBACK_PENDING;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+// Every started saga sits in the wheel until its ending arrives. One that outlives timeout-ms is marked
+// TIMED_OUT in saga_state and sent to the last stage's rollback topic, so the regular compensation chain
+// runs back to notify-ending.
+@Slf4j
+@Service
+public class SagaTimeoutService {
+
+    private static final String CURRENT_SERVICE = "ORDER_SERVICE";
+
+    private final MongoTemplate mongoTemplate;
+    private final EventRepository eventRepository;
+    private final SagaProducer<Event> producer;
+    private final HashedTimingWheel wheel;
+    private final ExecutorService expirations;
+    private final Counter timedOutCounter;
+    private final Boolean enabled;
+    private final Boolean historyDeltaEnabled;
+    private final Long timeoutMs;
+    private final String compensationTopic;
+
+    public SagaTimeoutService(MongoTemplate mongoTemplate,
+                              EventRepository eventRepository,
+                              SagaProducer<Event> producer,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.saga-timeout.enabled}") Boolean enabled,
+                              @Value("${app.saga-timeout.timeout-ms}") Long timeoutMs,
+                              @Value("${app.saga-timeout.tick-ms}") Long tickMs,
+                              @Value("${app.saga-timeout.wheel-size}") Integer wheelSize,
+                              @Value("${app.saga-timeout.workers}") Integer workers,
+                              @Value("${app.history.delta-enabled}") Boolean historyDeltaEnabled,
+                              @Value("${spring.kafka.topic.inventory-fail}") String compensationTopic) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventRepository = eventRepository;
+        this.producer = producer;
+        this.enabled = enabled;
+        this.historyDeltaEnabled = historyDeltaEnabled;
+        this.timeoutMs = timeoutMs;
+        this.compensationTopic = compensationTopic;
+        this.wheel = new HashedTimingWheel(tickMs, wheelSize, System.currentTimeMillis());
+        this.expirations = Executors.newFixedThreadPool(workers, Thread.ofPlatform().name("saga-timeout-", 0).factory());
+        this.timedOutCounter = meterRegistry.counter("saga.timeout.expired");
+
+        Gauge.builder("saga.timeout.tracked", wheel, HashedTimingWheel::size).register(meterRegistry);
+    }
+
+    public void register(Event event) {
+        if (enabled) {
+            wheel.schedule(event.getOrderId(), toEpochMilli(event.getPayload().getCreatedAt()) + timeoutMs);
+        }
+    }
+
+    public void registerAll(List<Event> events) {
+        events.forEach(this::register);
+    }
+
+    public void cancel(String orderId) {
+        wheel.cancel(orderId);
+    }
+
+    // The wheel lives in memory only; saga_state holds every saga still in progress, so a restarted
+    // replica schedules them again from their start time.
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        var query = query(where("outcome").is(ESagaOutcome.IN_PROGRESS));
+        query.fields().include("startedAt");
+        var count = 0;
+        try (var states = mongoTemplate.stream(query, SagaState.class)) {
+            var iterator = states.iterator();
+            while (iterator.hasNext()) {
+                var state = iterator.next();
+                wheel.schedule(state.getOrderId(), toEpochMilli(state.getStartedAt()) + timeoutMs);
+                count++;
+            }
+        }
+        log.info("Tracking timeouts for {} sagas in progress", count);
+    }
+
+    // The tick only walks the wheel; the Mongo writes and sends of each expired saga run on the expiration
+    // workers, so they never hold the scheduler thread shared with the outbox relay and the other jobs.
+    @Scheduled(fixedDelayString = "${app.saga-timeout.tick-ms}")
+    public void expire() {
+        wheel.advance(System.currentTimeMillis(), orderId -> expirations.execute(() -> timeOut(orderId)));
+    }
+
+    @PreDestroy
+    public void close() {
+        expirations.shutdown();
+    }
+
+    // Only the IN_PROGRESS -> TIMED_OUT transition compensates, so an ending that raced the wheel, or another
+    // replica expiring the same saga, leaves it alone.
+    private void timeOut(String orderId) {
+        try {
+            var state = mongoTemplate.findAndModify(
+                    query(where("orderId").is(orderId).and("outcome").is(ESagaOutcome.IN_PROGRESS)),
+                    new Update().set("outcome", ESagaOutcome.TIMED_OUT).set("timedOutAt", LocalDateTime.now()),
+                    FindAndModifyOptions.options().returnNew(true),
+                    SagaState.class
+            );
+            if (state == null) {
+                return;
+            }
+            timedOutCounter.increment();
+            eventRepository.findById(state.getEventId()).ifPresentOrElse(
+                    this::compensate,
+                    () -> log.warn("Saga for order {} timed out before its event was relayed", orderId));
+        } catch (CompletionException ex) {
+            log.error("Could not send saga for order {} to compensation, trying again in {} ms", orderId, timeoutMs, ex);
+            reopen(orderId);
+        } catch (RuntimeException ex) {
+            log.error("Could not time out saga for order {}", orderId, ex);
+        }
+    }
+
+    // A compensation the broker never took puts the saga back in progress, so it times out again later
+    // instead of staying TIMED_OUT with nothing running.
+    private void reopen(String orderId) {
+        mongoTemplate.updateFirst(
+                query(where("orderId").is(orderId).and("outcome").is(ESagaOutcome.TIMED_OUT)),
+                new Update().set("outcome", ESagaOutcome.IN_PROGRESS).unset("timedOutAt"),
+                SagaState.class
+        );
+        wheel.schedule(orderId, System.currentTimeMillis() + timeoutMs);
+    }
+
+    // In delta mode the stored history stays in Mongo and only the new entry travels with the event.
+    private void compensate(Event event) {
+        if (historyDeltaEnabled) {
+            event.setEventHistory(null);
+        }
+        event.setSource(CURRENT_SERVICE);
+        event.setStatus(ROLLBACK_PENDING);
+        event.addHistory("Saga timed out after %d ms, compensating!".formatted(timeoutMs));
+        producer.sendEvent(event, compensationTopic).join();
+
+        log.warn("Saga for order {} timed out, sent to {} for compensation. TransactionId: {}",
+                event.getOrderId(), compensationTopic, event.getTransactionId());
+    }
+
+    private long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+}
@@ -1,33 +0,0 @@
-package br.com.microservices.choreography.orderservice.core.utils;
-
-import br.com.microservices.choreography.orderservice.core.document.Event;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.springframework.stereotype.Component;
-
-@Component
-public class JsonUtil {
-
-    private final ObjectMapper objectMapper;
-
-    public JsonUtil(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
-    }
-
-    public String toJson(Object object) {
-        try {
-            return objectMapper.writeValueAsString(object);
-        } catch (Exception ex) {
-            return "";
-        }
-
-    }
-
-    public Event toEvent(String json) {
-        try {
-            return objectMapper.readValue(json, Event.class);
-        } catch (Exception ex) {
-            return null;
-        }
-    }
-
-}
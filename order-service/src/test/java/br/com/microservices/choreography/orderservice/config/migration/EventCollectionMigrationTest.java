@@ -0,0 +1,101 @@
+package br.com.microservices.choreography.orderservice.config.migration;
+
+import br.com.microservices.choreography.orderservice.core.document.Event;
+import br.com.microservices.choreography.orderservice.core.document.History;
+import br.com.microservices.choreography.orderservice.core.enums.ESagaStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static br.com.microservices.choreography.orderservice.core.enums.ESagaStatus.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventCollectionMigrationTest {
+
+    private static final LocalDateTime STARTED_AT = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    @Test
+    void leavesStartedSagasInFlight() {
+        var event = storedEvent(entry("ORDER_SERVICE", SUCCESS, 0));
+
+        assertEquals(Optional.empty(), EventCollectionMigration.resolveFinishedAt(event, null));
+    }
+
+    // In delta mode the stored event is the start one, with the entries of the other services pushed into it.
+    @Test
+    void leavesDeltaModeSagasInFlight() {
+        var event = storedEvent(
+                entry("ORDER_SERVICE", SUCCESS, 0),
+                entry("PRODUCT_VALIDATION_SERVICE", SUCCESS, 1),
+                entry("PAYMENT_SERVICE", FAIL, 2),
+                entry("PRODUCT_VALIDATION_SERVICE", FAIL, 3)
+        );
+
+        assertEquals(Optional.empty(), EventCollectionMigration.resolveFinishedAt(event, null));
+    }
+
+    @Test
+    void doesNotTakeATimeoutCompensationForTheEnding() {
+        var event = storedEvent(
+                entry("ORDER_SERVICE", SUCCESS, 0),
+                entry("ORDER_SERVICE", ROLLBACK_PENDING, 5),
+                entry("INVENTORY_SERVICE", FAIL, 6)
+        );
+
+        assertEquals(Optional.empty(), EventCollectionMigration.resolveFinishedAt(event, null));
+    }
+
+    @Test
+    void finishesSagasAtTheirEndingEntry() {
+        var event = storedEvent(
+                entry("ORDER_SERVICE", SUCCESS, 0),
+                entry("PRODUCT_VALIDATION_SERVICE", SUCCESS, 1),
+                entry("PAYMENT_SERVICE", SUCCESS, 2),
+                entry("INVENTORY_SERVICE", SUCCESS, 3),
+                entry("ORDER_SERVICE", SUCCESS, 4)
+        );
+
+        assertEquals(Optional.of(STARTED_AT.plusSeconds(4)), EventCollectionMigration.resolveFinishedAt(event, null));
+    }
+
+    @Test
+    void finishesFailedSagasInDeltaMode() {
+        var event = storedEvent(
+                entry("ORDER_SERVICE", SUCCESS, 0),
+                entry("PRODUCT_VALIDATION_SERVICE", FAIL, 1),
+                entry("ORDER_SERVICE", FAIL, 2)
+        );
+
+        assertEquals(Optional.of(STARTED_AT.plusSeconds(2)), EventCollectionMigration.resolveFinishedAt(event, null));
+    }
+
+    @Test
+    void prefersTheSagaState() {
+        var finishedAt = STARTED_AT.plusSeconds(10);
+        var event = storedEvent(entry("ORDER_SERVICE", SUCCESS, 0), entry("PAYMENT_SERVICE", SUCCESS, 2));
+
+        assertEquals(Optional.of(finishedAt), EventCollectionMigration.resolveFinishedAt(event, finishedAt));
+    }
+
+    private Event storedEvent(History... history) {
+        return Event.builder()
+                .id("0H3ZQ5G7N4K2A")
+                .orderId("order-1")
+                .source("ORDER_SERVICE")
+                .status(SUCCESS)
+                .eventHistory(List.of(history))
+                .build();
+    }
+
+    private History entry(String source, ESagaStatus status, int seconds) {
+        return History.builder()
+                .source(source)
+                .status(status)
+                .message("Step %d".formatted(seconds))
+                .createdAt(STARTED_AT.plusSeconds(seconds))
+                .build();
+    }
+
+}
@@ -0,0 +1,64 @@
+package br.com.microservices.choreography.orderservice.core.dto;
+
+import br.com.microservices.choreography.orderservice.config.exception.ValidationException;
+import br.com.microservices.choreography.orderservice.core.document.Event;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventCursorTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 6, 1, 12, 30, 15, 123_456_789);
+
+    @Test
+    void decodesWhatItEncodes() {
+        var cursor = new EventCursor(CREATED_AT, "0H3ZQ5G7N4K2A");
+
+        assertEquals(cursor, EventCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void takesThePositionOfTheLastEvent() {
+        var event = Event.builder().id("0H3ZQ5G7N4K2A").createdAt(CREATED_AT).build();
+
+        assertEquals(new EventCursor(CREATED_AT, "0H3ZQ5G7N4K2A"), EventCursor.of(event));
+    }
+
+    @Test
+    void encodesUrlSafeWithoutPadding() {
+        var encoded = new EventCursor(CREATED_AT, "?>?>").encode();
+
+        assertFalse(encoded.contains("+") || encoded.contains("/") || encoded.contains("="), encoded);
+    }
+
+    @Test
+    void keepsSeparatorsInsideTheId() {
+        var cursor = new EventCursor(CREATED_AT, "legacy|id");
+
+        assertEquals(cursor, EventCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void rejectsCursorsThatAreNotBase64() {
+        assertThrows(ValidationException.class, () -> EventCursor.decode("not a cursor!"));
+    }
+
+    @Test
+    void rejectsCursorsWithoutSeparator() {
+        assertThrows(ValidationException.class, () -> EventCursor.decode(encode(CREATED_AT.toString())));
+    }
+
+    @Test
+    void rejectsCursorsWithAnInvalidDate() {
+        assertThrows(ValidationException.class, () -> EventCursor.decode(encode("yesterday|0H3ZQ5G7N4K2A")));
+    }
+
+    private String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
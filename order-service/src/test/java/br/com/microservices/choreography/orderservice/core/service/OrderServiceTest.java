@@ -0,0 +1,77 @@
+package br.com.microservices.choreography.orderservice.core.service;
+
+import br.com.microservices.choreography.orderservice.config.exception.ValidationException;
+import br.com.microservices.choreography.orderservice.core.document.OrderProducts;
+import br.com.microservices.choreography.orderservice.core.document.Product;
+import br.com.microservices.choreography.orderservice.core.dto.OrderRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderServiceTest {
+
+    private static final int MAX_BATCH_SIZE = 3;
+
+    // No collaborators: a batch that passes validation fails on the first of them, so a
+    // ValidationException also proves nothing was admitted or written.
+    private final OrderService orderService = new OrderService(null, null, null, null, null, null);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderService, "maxBatchSize", MAX_BATCH_SIZE);
+    }
+
+    @Test
+    void acceptsBatchesUpToTheMaxSize() {
+        assertDoesNotThrow(() -> orderService.validateBatch(List.of(validRequest())));
+        assertDoesNotThrow(() -> orderService.validateBatch(List.of(validRequest(), validRequest(), validRequest())));
+    }
+
+    @Test
+    void rejectsEmptyBatches() {
+        var ex = assertThrows(ValidationException.class, () -> orderService.createOrders(List.of()));
+
+        assertEquals("At least one order must be informed.", ex.getMessage());
+        assertThrows(ValidationException.class, () -> orderService.createOrders((List<OrderRequest>) null));
+    }
+
+    @Test
+    void rejectsBatchesOverTheMaxSize() {
+        var orderRequests = new ArrayList<OrderRequest>();
+        for (var index = 0; index <= MAX_BATCH_SIZE; index++) {
+            orderRequests.add(validRequest());
+        }
+
+        var ex = assertThrows(ValidationException.class, () -> orderService.createOrders(orderRequests));
+
+        assertEquals("A batch accepts at most 3 orders.", ex.getMessage());
+    }
+
+    @Test
+    void rejectsTheWholeBatchWhenOneOrderHasNoProducts() {
+        var orderRequests = List.of(validRequest(), new OrderRequest(List.of()), validRequest());
+
+        var ex = assertThrows(ValidationException.class, () -> orderService.createOrders(orderRequests));
+
+        assertEquals("Order at position 1 has no products.", ex.getMessage());
+    }
+
+    @Test
+    void rejectsMissingOrdersAndProducts() {
+        assertThrows(ValidationException.class,
+                () -> orderService.createOrders(Arrays.asList(validRequest(), null)));
+        assertThrows(ValidationException.class,
+                () -> orderService.createOrders(List.of(new OrderRequest(null))));
+    }
+
+    private OrderRequest validRequest() {
+        return new OrderRequest(List.of(new OrderProducts(new Product("COMIC_BOOKS", 15.50), 2)));
+    }
+
+}
@@ -0,0 +1,175 @@
+package br.com.microservices.choreography.orderservice.core.service;
+
+import br.com.microservices.choreography.orderservice.core.document.Event;
+import br.com.microservices.choreography.orderservice.core.document.Order;
+import br.com.microservices.choreography.orderservice.core.document.Outbox;
+import br.com.microservices.choreography.orderservice.core.repository.OutboxRepository;
+import br.com.microservices.choreography.sagacore.core.producer.SagaProducer;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static br.com.microservices.choreography.orderservice.core.enums.ESagaStatus.SUCCESS;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OutboxServiceTest {
+
+    private static final String TOPIC = "product-validation-start";
+    private static final int BATCH_SIZE = 10;
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final BulkOperations bulkOperations = mock(BulkOperations.class, RETURNS_SELF);
+    private final SagaStateService sagaStateService = mock(SagaStateService.class);
+    @SuppressWarnings("unchecked")
+    private final SagaProducer<Event> producer = mock(SagaProducer.class);
+    private final OutboxService outboxService = new OutboxService(mock(OutboxRepository.class), mongoTemplate,
+            sagaStateService, producer);
+
+    private final List<Event> sentEvents = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(outboxService, "productValidationStartTopic", TOPIC);
+        ReflectionTestUtils.setField(outboxService, "batchSize", BATCH_SIZE);
+        ReflectionTestUtils.setField(outboxService, "leaseMs", 30_000L);
+        ReflectionTestUtils.setField(outboxService, "historyDeltaEnabled", false);
+
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), any(Class.class))).thenReturn(bulkOperations);
+        when(producer.sendEvent(any(Event.class), eq(TOPIC))).thenAnswer(invocation -> {
+            Event event = invocation.getArgument(0);
+            sentEvents.add(event);
+            return "order-2".equals(event.getOrderId())
+                    ? CompletableFuture.failedFuture(new IllegalStateException("broker unavailable"))
+                    : CompletableFuture.completedFuture(mock(SendResult.class));
+        });
+    }
+
+    @Test
+    void claimsNothingWhenTheOutboxIsEmpty() {
+        when(mongoTemplate.find(any(Query.class), eq(Outbox.class))).thenReturn(List.of());
+
+        outboxService.relay();
+
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(), eq(Outbox.class));
+        verifyNoInteractions(producer, sagaStateService);
+    }
+
+    @Test
+    void removesOnlyTheEventsTheBrokerTook() {
+        claim(outbox("order-1"), outbox("order-2"), outbox("order-3"));
+
+        outboxService.relay();
+
+        assertEquals(3, sentEvents.size());
+        assertEquals(new Document("$in", List.of("event-order-1", "event-order-3")), removedIds());
+    }
+
+    // The orders, events and saga_state are written before the first send, so a saga the next service
+    // already sees is always visible in the order-service.
+    @Test
+    void persistsTheSagaBeforeSendingIt() {
+        var claimed = List.of(outbox("order-1"));
+        claim(claimed.toArray(Outbox[]::new));
+
+        outboxService.relay();
+
+        var inOrder = inOrder(mongoTemplate, bulkOperations, sagaStateService, producer);
+        inOrder.verify(mongoTemplate).bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class);
+        inOrder.verify(bulkOperations).execute();
+        inOrder.verify(mongoTemplate).bulkOps(BulkOperations.BulkMode.UNORDERED, Event.class);
+        inOrder.verify(bulkOperations).execute();
+        inOrder.verify(sagaStateService).startAll(List.of(claimed.get(0).getEvent()));
+        inOrder.verify(producer).sendEvent(claimed.get(0).getEvent(), TOPIC);
+    }
+
+    // A relay retried after a partial failure finds some documents already inserted.
+    @Test
+    void relaysDocumentsThatWereAlreadyInserted() {
+        claim(outbox("order-1"));
+        var failure = bulkFailure(11000);
+        when(bulkOperations.execute()).thenThrow(failure);
+
+        outboxService.relay();
+
+        assertEquals(1, sentEvents.size());
+        assertEquals(new Document("$in", List.of("event-order-1")), removedIds());
+    }
+
+    @Test
+    void keepsTheBatchWhenADocumentCannotBeInserted() {
+        claim(outbox("order-1"));
+        var failure = bulkFailure(121);
+        when(bulkOperations.execute()).thenThrow(failure);
+
+        assertThrows(BulkOperationException.class, outboxService::relay);
+
+        assertTrue(sentEvents.isEmpty());
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(Outbox.class));
+    }
+
+    @Test
+    void sendsOnlyTheNewHistoryInDeltaMode() {
+        ReflectionTestUtils.setField(outboxService, "historyDeltaEnabled", true);
+        claim(outbox("order-1"));
+
+        outboxService.relay();
+
+        assertNull(sentEvents.get(0).getEventHistory());
+    }
+
+    private void claim(Outbox... outbox) {
+        var claimed = List.of(outbox);
+        when(mongoTemplate.find(any(Query.class), eq(Outbox.class))).thenReturn(claimed, claimed);
+    }
+
+    private Object removedIds() {
+        var query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(query.capture(), eq(Outbox.class));
+        return query.getValue().getQueryObject().get("id");
+    }
+
+    private BulkOperationException bulkFailure(int code) {
+        var exception = mock(BulkOperationException.class);
+        when(exception.getErrors()).thenReturn(List.of(new BulkWriteError(code, "write failed", new BsonDocument(), 0)));
+        return exception;
+    }
+
+    private Outbox outbox(String orderId) {
+        var order = Order.builder()
+                .id(orderId)
+                .transactionId("transaction-" + orderId)
+                .createdAt(LocalDateTime.now())
+                .build();
+        var event = Event.builder()
+                .id("event-" + orderId)
+                .orderId(orderId)
+                .transactionId(order.getTransactionId())
+                .payload(order)
+                .source("ORDER_SERVICE")
+                .status(SUCCESS)
+                .build();
+        event.addHistory("Saga started!");
+        return Outbox.builder()
+                .id(event.getId())
+                .event(event)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+}
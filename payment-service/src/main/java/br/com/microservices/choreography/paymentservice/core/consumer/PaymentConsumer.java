@@ -1,40 +1,72 @@
 package br.com.microservices.choreography.paymentservice.core.consumer;
 
 import br.com.microservices.choreography.paymentservice.core.service.PaymentService;
-import br.com.microservices.choreography.paymentservice.core.utils.JsonUtil;
-import lombok.extern.slf4j.Slf4j;
+import br.com.microservices.choreography.sagacore.config.kafka.RetryTopicResolver;
+import br.com.microservices.choreography.sagacore.core.codec.EventCodecRegistry;
+import br.com.microservices.choreography.sagacore.core.dto.Event;
+import br.com.microservices.choreography.sagacore.core.dto.SagaMetadata;
+import br.com.microservices.choreography.sagacore.core.enums.ESagaLogStage;
+import br.com.microservices.choreography.sagacore.core.logging.SagaLogger;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
-@Slf4j
 @Component
 public class PaymentConsumer {
 
-    private final JsonUtil jsonUtil;
+    private final EventCodecRegistry<Event> codecRegistry;
     private final PaymentService paymentService;
+    private final RetryTopicResolver retryTopicResolver;
+    private final SagaLogger sagaLogger;
 
-    public PaymentConsumer(JsonUtil jsonUtil, PaymentService paymentService) {
-        this.jsonUtil = jsonUtil;
+    @Value("${spring.kafka.topic.payment-success}")
+    private String paymentSuccessTopic;
+
+    public PaymentConsumer(EventCodecRegistry<Event> codecRegistry,
+                           PaymentService paymentService,
+                           RetryTopicResolver retryTopicResolver,
+                           SagaLogger sagaLogger) {
+        this.codecRegistry = codecRegistry;
         this.paymentService = paymentService;
+        this.retryTopicResolver = retryTopicResolver;
+        this.sagaLogger = sagaLogger;
     }
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.payment-success}"
     )
-    public void consumeSuccessEvent(String payload) {
-        log.info("Receiving success event {} from payment-success topic", payload);
-        var event = jsonUtil.toEvent(payload);
-        paymentService.doPayment(event);
+    public void consumeSuccessEvent(ConsumerRecord<String, byte[]> record) {
+        processSuccessEvent(record, SagaMetadata.from(record));
     }
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.payment-fail}"
     )
-    public void consumeFailEvent(String payload) {
-        log.info("Receiving rollback event {} from payment-success topic", payload);
-        var event = jsonUtil.toEvent(payload);
-        paymentService.doRefund(event);
+    public void consumeFailEvent(ConsumerRecord<String, byte[]> record) {
+        sagaLogger.info(ESagaLogStage.CONSUME, SagaMetadata.from(record),
+                "Receiving rollback event from {} topic", record.topic());
+        paymentService.doRefund(codecRegistry.decode(record.value()));
+    }
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "#{retryTopicResolver.retryTopics}",
+            containerFactory = "retryKafkaListenerContainerFactory"
+    )
+    public void consumeRetryEvent(ConsumerRecord<String, byte[]> record) {
+        retryTopicResolver.awaitRetry(record);
+        if (paymentSuccessTopic.equals(retryTopicResolver.getOriginalTopic(record))) {
+            processSuccessEvent(record, SagaMetadata.from(record));
+        } else {
+            consumeFailEvent(record);
+        }
+    }
+
+    private void processSuccessEvent(ConsumerRecord<String, byte[]> record, SagaMetadata metadata) {
+        sagaLogger.info(ESagaLogStage.CONSUME, metadata, "Receiving success event from {} topic", record.topic());
+        paymentService.doPayment(codecRegistry.decode(record.value()));
     }
 }
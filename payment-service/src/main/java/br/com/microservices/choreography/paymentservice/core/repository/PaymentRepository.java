@@ -1,14 +1,23 @@
 package br.com.microservices.choreography.paymentservice.core.repository;
 
 import br.com.microservices.choreography.paymentservice.core.model.Payment;
+import br.com.microservices.choreography.sagacore.core.idempotency.SagaKeyRepository;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface PaymentRepository extends JpaRepository<Payment, Integer> {
+public interface PaymentRepository extends JpaRepository<Payment, Integer>, SagaKeyRepository {
 
     Boolean existsByOrderIdAndTransactionId(String orderId, String transactionId);
 
     Optional<Payment> findByOrderIdAndTransactionId(String orderId, String transactionId);
 
+    @Override
+    @Query("select distinct concat(e.orderId, ':', e.transactionId) from Payment e where e.createdAt >= :createdAt")
+    Stream<String> findSagaKeysCreatedSince(@Param("createdAt") LocalDateTime createdAt);
+
 }
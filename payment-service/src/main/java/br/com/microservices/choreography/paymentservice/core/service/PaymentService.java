@@ -1,71 +1,111 @@
 package br.com.microservices.choreography.paymentservice.core.service;
 
-import br.com.microservices.choreography.paymentservice.config.exception.ValidationException;
-import br.com.microservices.choreography.paymentservice.core.dto.Event;
 import br.com.microservices.choreography.paymentservice.core.enums.EPaymentStatus;
-import br.com.microservices.choreography.paymentservice.core.enums.ESagaStatus;
 import br.com.microservices.choreography.paymentservice.core.model.Payment;
-import br.com.microservices.choreography.paymentservice.core.producer.KafkaProducer;
 import br.com.microservices.choreography.paymentservice.core.repository.PaymentRepository;
 import br.com.microservices.choreography.paymentservice.core.saga.SagaExecutionController;
-import br.com.microservices.choreography.paymentservice.core.utils.JsonUtil;
-import lombok.extern.slf4j.Slf4j;
+import br.com.microservices.choreography.sagacore.core.dto.Event;
+import br.com.microservices.choreography.sagacore.core.dto.OrderProducts;
+import br.com.microservices.choreography.sagacore.core.dto.SagaMetadata;
+import br.com.microservices.choreography.sagacore.core.enums.ESagaLogStage;
+import br.com.microservices.choreography.sagacore.core.enums.ESagaStatus;
+import br.com.microservices.choreography.sagacore.core.idempotency.IdempotencyFilter;
+import br.com.microservices.choreography.sagacore.core.logging.SagaLogger;
 import org.springframework.stereotype.Service;
 
-@Slf4j
+import java.util.Optional;
+
 @Service
 public class PaymentService {
 
     private static final String CURRENT_SOURCE = "PAYMENT_SERVICE";
+    private static final Double REDUCE_IDENTITY_SUM_VALUE = 0.0;
 
     private final PaymentRepository paymentRepository;
     private final SagaExecutionController sagaExecutionController;
+    private final IdempotencyFilter idempotencyFilter;
+    private final SagaLogger sagaLogger;
 
-    public PaymentService(PaymentRepository paymentRepository, SagaExecutionController sagaExecutionController) {
+    public PaymentService(PaymentRepository paymentRepository,
+                          SagaExecutionController sagaExecutionController,
+                          IdempotencyFilter idempotencyFilter,
+                          SagaLogger sagaLogger) {
         this.sagaExecutionController = sagaExecutionController;
         this.paymentRepository = paymentRepository;
+        this.idempotencyFilter = idempotencyFilter;
+        this.sagaLogger = sagaLogger;
     }
 
+    // A redelivered event (e.g. its next hop failed to send) finds the payment already stored and
+    // publishes the same next hop again from it, instead of failing the saga as a duplicate. Refunded
+    // payments belong to a saga that is already compensating, so their forward events are dropped.
     public void doPayment(Event event) {
-        try {
-            checkCurrentValidation(event);
-            createPendingPayment(event);
+        var storedPayment = findStoredPayment(event);
+        if (storedPayment.filter(payment -> EPaymentStatus.REFUND == payment.getStatus()).isPresent()) {
+            sagaLogger.warn(ESagaLogStage.PROCESS, SagaMetadata.from(event),
+                    "Dropping event of an already refunded payment from {}", CURRENT_SOURCE);
+            return;
+        }
 
-            Payment payment = paymentRepository.findByOrderIdAndTransactionId(event.getPayload().getId(), event.getTransactionId())
-                    .orElseThrow(() -> new ValidationException("Payment not found by OrderId and TransactionId."));
+        try {
+            Payment payment = storedPayment.orElseGet(() -> createPendingPayment(event));
+            event.getPayload().setTotalAmount(payment.getTotalAmount());
+            event.getPayload().setTotalItems(payment.getTotalItems());
 
             payment.validateAmount();
-            event.addHistorySuccess(CURRENT_SOURCE);
-            payment.setStatus(EPaymentStatus.SUCCESS);
-            paymentRepository.save(payment);
+            event.addHistorySuccess(CURRENT_SOURCE, "Payment done successfully!");
+            if (EPaymentStatus.SUCCESS != payment.getStatus()) {
+                payment.setStatus(EPaymentStatus.SUCCESS);
+                paymentRepository.save(payment);
+            }
 
         } catch (Exception ex) {
-            log.error("Error trying to make payment: ", ex);
-            event.addHistoryFail(ex.getMessage(), CURRENT_SOURCE);
+            sagaLogger.failure(ESagaLogStage.PROCESS, SagaMetadata.from(event), event, ex,
+                    "Error trying to make payment: {}", ex.getMessage());
+            event.addHistoryFail(CURRENT_SOURCE, "Fail while doing payment: ".concat(ex.getMessage()));
         }
 
         sagaExecutionController.handleSaga(event);
     }
 
-    private void checkCurrentValidation(Event event) {
-        if (paymentRepository.existsByOrderIdAndTransactionId(event.getPayload().getId(), event.getTransactionId())) {
-            throw new ValidationException("There's another transactionId for this validation.");
+    public boolean isProcessed(String orderId, String transactionId) {
+        return idempotencyFilter.isProcessed(orderId, transactionId,
+                () -> paymentRepository.existsByOrderIdAndTransactionId(orderId, transactionId));
+    }
+
+    private Optional<Payment> findStoredPayment(Event event) {
+        if (!isProcessed(event.getPayload().getId(), event.getTransactionId())) {
+            return Optional.empty();
         }
+        return paymentRepository.findByOrderIdAndTransactionId(event.getPayload().getId(), event.getTransactionId());
     }
 
-    private void createPendingPayment(Event event) {
+    private Payment createPendingPayment(Event event) {
         Payment payment = Payment.builder()
                 .orderId(event.getPayload().getId())
                 .transactionId(event.getTransactionId())
-                .totalAmount(event.calculateAmount())
-                .totalItems(event.calculateTotalItems())
+                .totalAmount(calculateAmount(event))
+                .totalItems(calculateTotalItems(event))
                 .status(EPaymentStatus.PENDING)
                 .build();
 
         paymentRepository.save(payment);
+        idempotencyFilter.markProcessed(payment.getOrderId(), payment.getTransactionId());
+        return payment;
+    }
+
+    private double calculateAmount(Event event) {
+        return event.getPayload().getProducts()
+                .stream()
+                .map(product -> product.getQuantity() * product.getProduct().getUnitValue())
+                .reduce(REDUCE_IDENTITY_SUM_VALUE, Double::sum);
+    }
 
-        event.setTotalAmountItems(payment.getTotalAmount());
-        event.setTotalItems(payment.getTotalItems());
+    private int calculateTotalItems(Event event) {
+        return event.getPayload().getProducts()
+                .stream()
+                .map(OrderProducts::getQuantity)
+                .reduce(REDUCE_IDENTITY_SUM_VALUE.intValue(), Integer::sum);
     }
 
     public void doRefund(Event event) {
@@ -73,24 +113,37 @@ public class PaymentService {
         event.setSource(CURRENT_SOURCE);
         try {
             changePaymentStatusToRefund(event);
-            event.addHistory(event, "Rollback executed for payment!");
+            event.addHistory("Rollback executed for payment!");
         } catch (Exception ex) {
-            event.addHistoryFail("- Rollback failed: ".concat(ex.getMessage()), CURRENT_SOURCE);
+            event.addHistoryFail(CURRENT_SOURCE, "Fail while doing payment: - Rollback failed: ".concat(ex.getMessage()));
         }
 
         sagaExecutionController.handleSaga(event);
     }
 
+    // Sagas compensated by the order-service timeout may never have reached payment. The refund is
+    // stored anyway, as for product validation, so a forward event of the timed-out saga arriving
+    // later finds it and is dropped instead of charging the order.
     private void changePaymentStatusToRefund(Event event) {
-        Payment payment = findByOrderIdAndTransactionId(event);
-        payment.setStatus(EPaymentStatus.REFUND);
-        event.setTotalAmountItems(payment.getTotalAmount());
+        paymentRepository.findByOrderIdAndTransactionId(event.getPayload().getId(), event.getTransactionId())
+                .ifPresentOrElse(payment -> {
+                    payment.setStatus(EPaymentStatus.REFUND);
+                    event.getPayload().setTotalAmount(payment.getTotalAmount());
 
-        paymentRepository.save(payment);
+                    paymentRepository.save(payment);
+                }, () -> createRefundedPayment(event));
     }
 
-    private Payment findByOrderIdAndTransactionId(Event event) {
-        return paymentRepository.findByOrderIdAndTransactionId(event.getPayload().getId(), event.getTransactionId())
-                .orElseThrow(() -> new ValidationException("Payment not found by OrderId and TransactionId."));
+    private void createRefundedPayment(Event event) {
+        Payment payment = Payment.builder()
+                .orderId(event.getPayload().getId())
+                .transactionId(event.getTransactionId())
+                .totalAmount(calculateAmount(event))
+                .totalItems(calculateTotalItems(event))
+                .status(EPaymentStatus.REFUND)
+                .build();
+
+        paymentRepository.save(payment);
+        idempotencyFilter.markProcessed(payment.getOrderId(), payment.getTransactionId());
     }
 }
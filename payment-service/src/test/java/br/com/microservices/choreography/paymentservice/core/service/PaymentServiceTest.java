@@ -0,0 +1,125 @@
+package br.com.microservices.choreography.paymentservice.core.service;
+
+import br.com.microservices.choreography.paymentservice.core.enums.EPaymentStatus;
+import br.com.microservices.choreography.paymentservice.core.model.Payment;
+import br.com.microservices.choreography.paymentservice.core.repository.PaymentRepository;
+import br.com.microservices.choreography.paymentservice.core.saga.SagaExecutionController;
+import br.com.microservices.choreography.sagacore.config.logging.SagaLoggingProperties;
+import br.com.microservices.choreography.sagacore.core.dto.Event;
+import br.com.microservices.choreography.sagacore.core.dto.Order;
+import br.com.microservices.choreography.sagacore.core.dto.OrderProducts;
+import br.com.microservices.choreography.sagacore.core.dto.Product;
+import br.com.microservices.choreography.sagacore.core.enums.ESagaStatus;
+import br.com.microservices.choreography.sagacore.core.idempotency.IdempotencyFilter;
+import br.com.microservices.choreography.sagacore.core.logging.SagaLogger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PaymentServiceTest {
+
+    private static final String ORDER_ID = "order-1";
+    private static final String TRANSACTION_ID = "transaction-1";
+
+    private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+    private final SagaExecutionController sagaExecutionController = mock(SagaExecutionController.class);
+    private final IdempotencyFilter idempotencyFilter = mock(IdempotencyFilter.class);
+    private final PaymentService paymentService = new PaymentService(paymentRepository, sagaExecutionController,
+            idempotencyFilter, new SagaLogger(new SagaLoggingProperties()));
+
+    // Stands in for the payment table: at most one row for the saga.
+    private final List<Payment> payments = new ArrayList<>();
+    private final List<ESagaStatus> sentStatuses = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(idempotencyFilter.isProcessed(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<BooleanSupplier>getArgument(2).getAsBoolean());
+        when(paymentRepository.existsByOrderIdAndTransactionId(ORDER_ID, TRANSACTION_ID))
+                .thenAnswer(invocation -> !payments.isEmpty());
+        when(paymentRepository.findByOrderIdAndTransactionId(ORDER_ID, TRANSACTION_ID))
+                .thenAnswer(invocation -> payments.stream().findFirst());
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> {
+            Payment payment = invocation.getArgument(0);
+            if (!payments.contains(payment)) {
+                payments.add(payment);
+            }
+            return payment;
+        });
+    }
+
+    @Test
+    void redeliveryAfterAFailedSendPublishesTheStoredSuccess() {
+        doAnswer(invocation -> {
+            sentStatuses.add(invocation.<Event>getArgument(0).getStatus());
+            throw new CompletionException(new IllegalStateException("broker unavailable"));
+        }).doAnswer(invocation -> sentStatuses.add(invocation.<Event>getArgument(0).getStatus()))
+                .when(sagaExecutionController).handleSaga(any(Event.class));
+
+        assertThrows(CompletionException.class, () -> paymentService.doPayment(buildEvent()));
+
+        var redelivered = buildEvent();
+        paymentService.doPayment(redelivered);
+
+        assertEquals(List.of(ESagaStatus.SUCCESS, ESagaStatus.SUCCESS), sentStatuses);
+        assertEquals(1, payments.size());
+        assertEquals(EPaymentStatus.SUCCESS, payments.get(0).getStatus());
+        assertEquals(20.0, redelivered.getPayload().getTotalAmount());
+        assertEquals(2, redelivered.getPayload().getTotalItems());
+    }
+
+    @Test
+    void redeliveryOfARefundedPaymentIsDropped() {
+        payments.add(Payment.builder()
+                .orderId(ORDER_ID)
+                .transactionId(TRANSACTION_ID)
+                .totalAmount(20.0)
+                .totalItems(2)
+                .status(EPaymentStatus.REFUND)
+                .build());
+
+        paymentService.doPayment(buildEvent());
+
+        verify(sagaExecutionController, never()).handleSaga(any(Event.class));
+        assertEquals(EPaymentStatus.REFUND, payments.get(0).getStatus());
+    }
+
+    @Test
+    void redeliveryOfAFailedPaymentPublishesTheSameFailure() {
+        var event = buildEvent();
+        event.getPayload().getProducts().get(0).getProduct().setUnitValue(0.0);
+        doAnswer(invocation -> sentStatuses.add(invocation.<Event>getArgument(0).getStatus()))
+                .when(sagaExecutionController).handleSaga(any(Event.class));
+
+        paymentService.doPayment(event);
+        var redelivered = buildEvent();
+        redelivered.getPayload().getProducts().get(0).getProduct().setUnitValue(0.0);
+        paymentService.doPayment(redelivered);
+
+        assertEquals(List.of(ESagaStatus.ROLLBACK_PENDING, ESagaStatus.ROLLBACK_PENDING), sentStatuses);
+        assertEquals(1, payments.size());
+        assertEquals(EPaymentStatus.PENDING, payments.get(0).getStatus());
+    }
+
+    private Event buildEvent() {
+        var order = Order.builder()
+                .id(ORDER_ID)
+                .transactionId(TRANSACTION_ID)
+                .products(List.of(new OrderProducts(new Product("COMIC_BOOKS", 10.0), 2)))
+                .build();
+        return Event.builder()
+                .orderId(ORDER_ID)
+                .transactionId(TRANSACTION_ID)
+                .payload(order)
+                .eventHistory(new ArrayList<>())
+                .build();
+    }
+}
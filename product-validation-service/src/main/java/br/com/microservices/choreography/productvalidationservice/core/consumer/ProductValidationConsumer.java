@@ -1,40 +1,72 @@
 package br.com.microservices.choreography.productvalidationservice.core.consumer;
 
 import br.com.microservices.choreography.productvalidationservice.core.service.ProductValidationService;
-import br.com.microservices.choreography.productvalidationservice.core.utils.JsonUtil;
-import lombok.extern.slf4j.Slf4j;
+import br.com.microservices.choreography.sagacore.config.kafka.RetryTopicResolver;
+import br.com.microservices.choreography.sagacore.core.codec.EventCodecRegistry;
+import br.com.microservices.choreography.sagacore.core.dto.Event;
+import br.com.microservices.choreography.sagacore.core.dto.SagaMetadata;
+import br.com.microservices.choreography.sagacore.core.enums.ESagaLogStage;
+import br.com.microservices.choreography.sagacore.core.logging.SagaLogger;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
-@Slf4j
 @Component
 public class ProductValidationConsumer {
 
     private final ProductValidationService productValidationService;
-    private final JsonUtil jsonUtil;
+    private final EventCodecRegistry<Event> codecRegistry;
+    private final RetryTopicResolver retryTopicResolver;
+    private final SagaLogger sagaLogger;
 
-    public ProductValidationConsumer(ProductValidationService productValidationService, JsonUtil jsonUtil) {
+    @Value("${spring.kafka.topic.product-validation-start}")
+    private String productValidationStartTopic;
+
+    public ProductValidationConsumer(ProductValidationService productValidationService,
+                                     EventCodecRegistry<Event> codecRegistry,
+                                     RetryTopicResolver retryTopicResolver,
+                                     SagaLogger sagaLogger) {
         this.productValidationService = productValidationService;
-        this.jsonUtil = jsonUtil;
+        this.codecRegistry = codecRegistry;
+        this.retryTopicResolver = retryTopicResolver;
+        this.sagaLogger = sagaLogger;
     }
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.product-validation-start}"
     )
-    public void consumeSuccessEvent(String payload) {
-        log.info("Receiving success event {} from product-validation-start topic", payload);
-        var event = jsonUtil.toEvent(payload);
-        productValidationService.validateExistingProducts(event);
+    public void consumeSuccessEvent(ConsumerRecord<String, byte[]> record) {
+        processSuccessEvent(record, SagaMetadata.from(record));
     }
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.product-validation-fail}"
     )
-    public void consumeFailEvent(String payload) {
-        log.info("Receiving rollback event {} from product-validation-success topic", payload);
-        var event = jsonUtil.toEvent(payload);
-        productValidationService.rollbackEvent(event);
+    public void consumeFailEvent(ConsumerRecord<String, byte[]> record) {
+        sagaLogger.info(ESagaLogStage.CONSUME, SagaMetadata.from(record),
+                "Receiving rollback event from {} topic", record.topic());
+        productValidationService.rollbackEvent(codecRegistry.decode(record.value()));
+    }
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "#{retryTopicResolver.retryTopics}",
+            containerFactory = "retryKafkaListenerContainerFactory"
+    )
+    public void consumeRetryEvent(ConsumerRecord<String, byte[]> record) {
+        retryTopicResolver.awaitRetry(record);
+        if (productValidationStartTopic.equals(retryTopicResolver.getOriginalTopic(record))) {
+            processSuccessEvent(record, SagaMetadata.from(record));
+        } else {
+            consumeFailEvent(record);
+        }
+    }
+
+    private void processSuccessEvent(ConsumerRecord<String, byte[]> record, SagaMetadata metadata) {
+        sagaLogger.info(ESagaLogStage.CONSUME, metadata, "Receiving success event from {} topic", record.topic());
+        productValidationService.validateExistingProducts(codecRegistry.decode(record.value()));
     }
 }
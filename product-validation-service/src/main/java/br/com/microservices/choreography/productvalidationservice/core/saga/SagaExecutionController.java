@@ -1,15 +1,18 @@
 package br.com.microservices.choreography.productvalidationservice.core.saga;
 
-import br.com.microservices.choreography.productvalidationservice.core.dto.Event;
-import br.com.microservices.choreography.productvalidationservice.core.producer.KafkaProducer;
-import br.com.microservices.choreography.productvalidationservice.core.utils.JsonUtil;
-import lombok.extern.slf4j.Slf4j;
+import br.com.microservices.choreography.sagacore.core.dto.Event;
+import br.com.microservices.choreography.sagacore.core.dto.SagaMetadata;
+import br.com.microservices.choreography.sagacore.core.enums.ESagaLogStage;
+import br.com.microservices.choreography.sagacore.core.logging.SagaLogger;
+import br.com.microservices.choreography.sagacore.core.producer.PendingSends;
+import br.com.microservices.choreography.sagacore.core.producer.SagaHistoryPublisher;
+import br.com.microservices.choreography.sagacore.core.producer.SagaProducer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
-import static java.lang.String.format;
+import java.util.concurrent.CompletableFuture;
 
-@Slf4j
 @Component
 public class SagaExecutionController {
 
@@ -22,45 +25,56 @@ public class SagaExecutionController {
     @Value("${spring.kafka.topic.notify-ending}")
     private String notifyEndingTopic;
 
-    private final JsonUtil jsonUtil;
-    private final KafkaProducer producer;
+    private final SagaProducer<Event> producer;
+    private final SagaHistoryPublisher historyPublisher;
+    private final SagaLogger sagaLogger;
 
-    public SagaExecutionController(JsonUtil jsonUtil, KafkaProducer producer) {
-        this.jsonUtil = jsonUtil;
+    public SagaExecutionController(SagaProducer<Event> producer,
+                                   SagaHistoryPublisher historyPublisher,
+                                   SagaLogger sagaLogger) {
         this.producer = producer;
+        this.historyPublisher = historyPublisher;
+        this.sagaLogger = sagaLogger;
     }
 
+    // The next hop's send is awaited, together with the rest of the poll, before the offsets are
+    // committed; a failed send fails the record into the retry and dead-letter topics instead of
+    // being lost behind a committed offset.
     public void handleSaga(Event event) {
-        switch (event.getStatus()) {
+        PendingSends.await(dispatch(event));
+    }
+
+    private CompletableFuture<SendResult<String, byte[]>> dispatch(Event event) {
+        return switch (event.getStatus()) {
             case SUCCESS -> handleSuccess(event);
             case ROLLBACK_PENDING -> handleRollbackPending(event);
             case FAIL -> handleFail(event);
-        }
+        };
     }
 
-    private void handleSuccess(Event event) {
-        log.info("### CURRENT SAGA: {} | SUCCESS | NEXT TOPIC {} | {}",
-                event.getSource(), paymentSuccessTopic, event.getSagaId());
+    private CompletableFuture<SendResult<String, byte[]>> handleSuccess(Event event) {
+        sagaLogger.info(ESagaLogStage.TRANSITION, SagaMetadata.from(event),
+                "### CURRENT SAGA: SUCCESS | NEXT TOPIC {}", paymentSuccessTopic);
 
-        sendEvent(event, paymentSuccessTopic);
+        return sendEvent(event, paymentSuccessTopic);
     }
 
-    private void handleRollbackPending(Event event) {
-        log.info("### CURRENT SAGA: {} | SENDING TO ROLLBACK CURRENT SERVICE | NEXT TOPIC {} | {}",
-                event.getSource(), productValidationFailTopic, event.getSagaId());
+    private CompletableFuture<SendResult<String, byte[]>> handleRollbackPending(Event event) {
+        sagaLogger.info(ESagaLogStage.TRANSITION, SagaMetadata.from(event),
+                "### CURRENT SAGA: SENDING TO ROLLBACK CURRENT SERVICE | NEXT TOPIC {}", productValidationFailTopic);
 
-        sendEvent(event, productValidationFailTopic);
+        return sendEvent(event, productValidationFailTopic);
     }
 
-    private void handleFail(Event event) {
-        log.info("### CURRENT SAGA: {} | FAIL | NEXT TOPIC {} | {}",
-                event.getSource(), notifyEndingTopic, event.getSagaId());
+    private CompletableFuture<SendResult<String, byte[]>> handleFail(Event event) {
+        sagaLogger.info(ESagaLogStage.TRANSITION, SagaMetadata.from(event),
+                "### CURRENT SAGA: FAIL | NEXT TOPIC {}", notifyEndingTopic);
 
-        sendEvent(event, notifyEndingTopic);
+        return sendEvent(event, notifyEndingTopic);
     }
 
-    private void sendEvent(Event event, String topic) {
-        String json = jsonUtil.toJson(event);
-        producer.sendEvent(json, topic);
+    private CompletableFuture<SendResult<String, byte[]>> sendEvent(Event event, String topic) {
+        historyPublisher.publishDelta(event);
+        return producer.sendEvent(event, topic);
     }
 }
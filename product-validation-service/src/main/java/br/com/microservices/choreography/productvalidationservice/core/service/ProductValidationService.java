@@ -1,17 +1,23 @@
 package br.com.microservices.choreography.productvalidationservice.core.service;
 
-import br.com.microservices.choreography.productvalidationservice.core.dto.Event;
+import br.com.microservices.choreography.productvalidationservice.config.exception.ValidationException;
 import br.com.microservices.choreography.productvalidationservice.core.model.Validation;
-import br.com.microservices.choreography.productvalidationservice.core.producer.KafkaProducer;
 import br.com.microservices.choreography.productvalidationservice.core.repository.ProductRepository;
 import br.com.microservices.choreography.productvalidationservice.core.repository.ValidationRepository;
 import br.com.microservices.choreography.productvalidationservice.core.saga.SagaExecutionController;
-import br.com.microservices.choreography.productvalidationservice.core.utils.JsonUtil;
+import br.com.microservices.choreography.sagacore.core.dto.Event;
+import br.com.microservices.choreography.sagacore.core.dto.OrderProducts;
+import br.com.microservices.choreography.sagacore.core.dto.SagaMetadata;
+import br.com.microservices.choreography.sagacore.core.enums.ESagaLogStage;
+import br.com.microservices.choreography.sagacore.core.idempotency.IdempotencyFilter;
+import br.com.microservices.choreography.sagacore.core.logging.SagaLogger;
 import lombok.AllArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-@Slf4j
+import java.util.Optional;
+
+import static org.springframework.util.ObjectUtils.isEmpty;
+
 @Service
 @AllArgsConstructor
 public class ProductValidationService {
@@ -21,15 +27,30 @@ public class ProductValidationService {
     private final ProductRepository productRepository;
     private final ValidationRepository validationRepository;
     private final SagaExecutionController sagaExecutionController;
+    private final IdempotencyFilter idempotencyFilter;
+    private final SagaLogger sagaLogger;
 
+    // A redelivered event (e.g. its next hop failed to send) finds the validation already stored and
+    // publishes the same next hop again, instead of failing the saga as a duplicate. A validation
+    // turned into a failure belongs to a rolled back saga, so its forward events are dropped.
     public void validateExistingProducts(Event event) {
+        var storedValidation = findStoredValidation(event);
+        if (storedValidation.filter(validation -> !validation.isSuccess()).isPresent()) {
+            sagaLogger.warn(ESagaLogStage.PROCESS, SagaMetadata.from(event),
+                    "Dropping event of an already rolled back validation from {}", CURRENT_SOURCE);
+            return;
+        }
+
         try {
-            event.validate(validationRepository, productRepository);
-            createValidation(event, true);
-            event.addHistorySuccess(CURRENT_SOURCE);
+            if (storedValidation.isEmpty()) {
+                validate(event);
+                createValidation(event, true);
+            }
+            event.addHistorySuccess(CURRENT_SOURCE, "Products are validated successfully!");
         } catch (Exception ex) {
-            log.error("Error trying to validate products: ", ex);
-            event.addHistoryFail(CURRENT_SOURCE, ex.getMessage());
+            sagaLogger.failure(ESagaLogStage.PROCESS, SagaMetadata.from(event), event, ex,
+                    "Error trying to validate products: {}", ex.getMessage());
+            event.addHistoryFail(CURRENT_SOURCE, "Fail to validate products: ".concat(ex.getMessage()));
         }
 
         sagaExecutionController.handleSaga(event);
@@ -37,11 +58,56 @@ public class ProductValidationService {
 
     public void rollbackEvent(Event event) {
         changeValidationToFail(event);
-        event.addHistoryRollback(CURRENT_SOURCE);
+        event.addHistoryRollback(CURRENT_SOURCE, "Rollback executed on product validation!");
 
         sagaExecutionController.handleSaga(event);
     }
 
+    public boolean isProcessed(String orderId, String transactionId) {
+        return idempotencyFilter.isProcessed(orderId, transactionId,
+                () -> validationRepository.existsByOrderIdAndTransactionId(orderId, transactionId));
+    }
+
+    private Optional<Validation> findStoredValidation(Event event) {
+        if (!isProcessed(event.getOrderId(), event.getTransactionId())) {
+            return Optional.empty();
+        }
+        return validationRepository.findByOrderIdAndTransactionId(event.getOrderId(), event.getTransactionId());
+    }
+
+    private void validate(Event event) {
+        validateProductsInformed(event);
+
+        event.getPayload().getProducts().forEach(product -> {
+                    validateProductInformed(product);
+                    validateExistingProduct(product.getProduct().getCode());
+                }
+        );
+    }
+
+    private void validateProductsInformed(Event event) {
+        var payload = event.getPayload();
+        if (isEmpty(payload) || isEmpty(payload.getProducts())) {
+            throw new ValidationException("Product list is empty!");
+        }
+
+        if (isEmpty(payload.getId()) || isEmpty(payload.getTransactionId())) {
+            throw new ValidationException("OrderID and TransactionID must be informed!");
+        }
+    }
+
+    private void validateExistingProduct(String code) {
+        if (!productRepository.existsByCode(code)) {
+            throw new ValidationException("Product does not exists in database!");
+        }
+    }
+
+    private void validateProductInformed(OrderProducts orderProducts) {
+        if (isEmpty(orderProducts.getProduct()) || isEmpty(orderProducts.getProduct().getCode())) {
+            throw new ValidationException("Product must be informed!");
+        }
+    }
+
     private void changeValidationToFail(Event event) {
         validationRepository
                 .findByOrderIdAndTransactionId(event.getPayload().getId(), event.getPayload().getTransactionId())
@@ -59,5 +125,6 @@ public class ProductValidationService {
                 .build();
 
         validationRepository.save(validation);
+        idempotencyFilter.markProcessed(validation.getOrderId(), validation.getTransactionId());
     }
 }
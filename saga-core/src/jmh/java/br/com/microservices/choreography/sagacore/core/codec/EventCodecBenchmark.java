@@ -0,0 +1,147 @@
+package br.com.microservices.choreography.sagacore.core.codec;
+
+import br.com.microservices.choreography.sagacore.config.kafka.CodecProperties;
+import br.com.microservices.choreography.sagacore.core.dto.*;
+import br.com.microservices.choreography.sagacore.core.enums.ESagaStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventCodecBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int eventSize;
+
+    private ObjectMapper objectMapper;
+    private EventCodec<Event> jsonCodec;
+    private EventCodec<Event> blackbirdCodec;
+    private EventCodec<Event> smileCodec;
+    private Event event;
+    private String json;
+    private byte[] jsonPayload;
+    private byte[] smilePayload;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = buildObjectMapper();
+        var blackbirdMapper = buildObjectMapper().registerModule(new BlackbirdModule());
+        jsonCodec = new JsonEventCodec<>(objectMapper, Event.class);
+        blackbirdCodec = new JsonEventCodec<>(blackbirdMapper, Event.class);
+        smileCodec = new SmileEventCodec<>(Event.class);
+        event = buildEvent(eventSize);
+        json = objectMapper.writeValueAsString(event);
+        jsonPayload = jsonCodec.encode(event);
+        smilePayload = smileCodec.encode(event);
+    }
+
+    // Previous JsonUtil path: per-call type resolution and an intermediate String.
+    @Benchmark
+    public byte[] encodeObjectMapperString() throws Exception {
+        return objectMapper.writeValueAsString(event).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Event decodeObjectMapperString() throws Exception {
+        return objectMapper.readValue(new String(jsonPayload, StandardCharsets.UTF_8), Event.class);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() {
+        return jsonCodec.encode(event);
+    }
+
+    @Benchmark
+    public Event decodeJson() {
+        return jsonCodec.decode(jsonPayload);
+    }
+
+    @Benchmark
+    public byte[] encodeJsonBlackbird() {
+        return blackbirdCodec.encode(event);
+    }
+
+    @Benchmark
+    public Event decodeJsonBlackbird() {
+        return blackbirdCodec.decode(jsonPayload);
+    }
+
+    @Benchmark
+    public byte[] encodeSmile() {
+        return smileCodec.encode(event);
+    }
+
+    @Benchmark
+    public Event decodeSmile() {
+        return smileCodec.decode(smilePayload);
+    }
+
+    @Benchmark
+    public Event decodeRegistry(RegistryState state) {
+        return state.registry.decode(jsonPayload);
+    }
+
+    @State(Scope.Benchmark)
+    public static class RegistryState {
+
+        private EventCodecRegistry<Event> registry;
+
+        @Setup
+        public void setup() {
+            var mapper = buildObjectMapper().registerModule(new BlackbirdModule());
+            registry = new EventCodecRegistry<>(new CodecProperties(), mapper, Event.class);
+        }
+    }
+
+    private static ObjectMapper buildObjectMapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static Event buildEvent(int size) {
+        var products = new ArrayList<OrderProducts>(size);
+        var history = new ArrayList<History>(size);
+        for (var index = 0; index < size; index++) {
+            products.add(new OrderProducts(new Product("PRODUCT_" + index, 10.5 * (index + 1)), index + 1));
+            history.add(History
+                    .builder()
+                    .source("PAYMENT_SERVICE")
+                    .status(ESagaStatus.SUCCESS)
+                    .message("Payment done successfully!")
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        var order = Order
+                .builder()
+                .id(UUID.randomUUID().toString())
+                .transactionId(UUID.randomUUID().toString())
+                .products(products)
+                .createdAt(LocalDateTime.now())
+                .totalAmount(products.size() * 10.5)
+                .totalItems(products.size())
+                .build();
+        return Event
+                .builder()
+                .id(UUID.randomUUID().toString())
+                .transactionId(order.getTransactionId())
+                .orderId(order.getId())
+                .payload(order)
+                .source("ORDER_SERVICE")
+                .status(ESagaStatus.SUCCESS)
+                .eventHistory(history)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+}
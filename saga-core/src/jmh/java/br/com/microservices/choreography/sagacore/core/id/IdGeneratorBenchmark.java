@@ -0,0 +1,57 @@
+package br.com.microservices.choreography.sagacore.core.id;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IdGeneratorBenchmark {
+
+    private IdGenerator snowflakeGenerator;
+    private IdGenerator ulidGenerator;
+
+    @Setup
+    public void setup() {
+        snowflakeGenerator = new SnowflakeIdGenerator(1);
+        ulidGenerator = new UlidGenerator();
+    }
+
+    // Previous OrderService scheme: epoch millis plus a SecureRandom-backed UUID, 50 characters.
+    @Benchmark
+    public String timestampUuid() {
+        return String.format("%s_%s", Instant.now().toEpochMilli(), UUID.randomUUID());
+    }
+
+    @Benchmark
+    public String snowflake() {
+        return snowflakeGenerator.nextId();
+    }
+
+    @Benchmark
+    public String ulid() {
+        return ulidGenerator.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String timestampUuidContended() {
+        return timestampUuid();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String snowflakeContended() {
+        return snowflakeGenerator.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String ulidContended() {
+        return ulidGenerator.nextId();
+    }
+
+}
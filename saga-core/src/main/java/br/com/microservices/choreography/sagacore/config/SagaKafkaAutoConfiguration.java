@@ -0,0 +1,348 @@
+package br.com.microservices.choreography.sagacore.config;
+
+import br.com.microservices.choreography.sagacore.config.id.IdGeneratorProperties;
+import br.com.microservices.choreography.sagacore.config.idempotency.IdempotencyProperties;
+import br.com.microservices.choreography.sagacore.config.kafka.CodecProperties;
+import br.com.microservices.choreography.sagacore.config.kafka.PipelinedRecordAdapter;
+import br.com.microservices.choreography.sagacore.config.kafka.RetryTopicResolver;
+import br.com.microservices.choreography.sagacore.config.kafka.VirtualThreadRecordAdapter;
+import br.com.microservices.choreography.sagacore.config.logging.SagaLoggingProperties;
+import br.com.microservices.choreography.sagacore.core.codec.EventCodecRegistry;
+import br.com.microservices.choreography.sagacore.core.controller.DeadLetterController;
+import br.com.microservices.choreography.sagacore.core.dto.Event;
+import br.com.microservices.choreography.sagacore.core.dto.HistoryDelta;
+import br.com.microservices.choreography.sagacore.core.dto.SagaMetadata;
+import br.com.microservices.choreography.sagacore.core.id.IdGenerator;
+import br.com.microservices.choreography.sagacore.core.id.SnowflakeIdGenerator;
+import br.com.microservices.choreography.sagacore.core.id.UlidGenerator;
+import br.com.microservices.choreography.sagacore.core.idempotency.IdempotencyFilter;
+import br.com.microservices.choreography.sagacore.core.idempotency.SagaKeyRepository;
+import br.com.microservices.choreography.sagacore.core.logging.SagaLogger;
+import br.com.microservices.choreography.sagacore.core.producer.SagaHistoryPublisher;
+import br.com.microservices.choreography.sagacore.core.producer.SagaProducer;
+import br.com.microservices.choreography.sagacore.core.service.DeadLetterService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+@EnableKafka
+@AutoConfiguration(before = KafkaAutoConfiguration.class, after = JacksonAutoConfiguration.class)
+@EnableConfigurationProperties({CodecProperties.class, SagaLoggingProperties.class, IdempotencyProperties.class, IdGeneratorProperties.class})
+public class SagaKafkaAutoConfiguration {
+
+    private static final Integer REPLICA_COUNT = 1;
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${spring.kafka.partitions}")
+    private Integer partitionCount;
+
+    @Value("${spring.kafka.producer.acks}")
+    private String acks;
+
+    @Value("${spring.kafka.producer.batch-size}")
+    private Integer batchSize;
+
+    @Value("${spring.kafka.producer.linger-ms}")
+    private Integer lingerMs;
+
+    @Value("${spring.kafka.producer.buffer-memory}")
+    private Long bufferMemory;
+
+    @Value("${spring.kafka.producer.compression-type}")
+    private String compressionType;
+
+    @Value("${spring.kafka.producer.enable-idempotence}")
+    private Boolean enableIdempotence;
+
+    @Value("${spring.kafka.listener.concurrency:1}")
+    private Integer concurrency;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private Boolean virtualThreadsEnabled;
+
+    @Value("${spring.kafka.consumer.group-id}")
+    private String groupId;
+
+    @Value("${spring.kafka.consumer.auto-offset-reset}")
+    private String autoOffsetReset;
+
+    @Value("${spring.kafka.consumer.max-poll-records:500}")
+    private Integer maxPollRecords;
+
+    @Value("${spring.kafka.topic.saga-history:saga-history}")
+    private String historyTopic;
+
+    @Value("${app.history.delta-enabled:false}")
+    private Boolean historyDeltaEnabled;
+
+    @Bean
+    @ConditionalOnMissingBean(ConsumerFactory.class)
+    public ConsumerFactory<String, byte[]> consumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(consumerProps());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(ProducerFactory.class)
+    public ProducerFactory<String, byte[]> producerFactory() {
+        return new DefaultKafkaProducerFactory<>(producerProps());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(KafkaTemplate.class)
+    public KafkaTemplate<String, byte[]> kafkaTemplate(ProducerFactory<String, byte[]> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
+    }
+
+    // Only services that keep processed sagas set app.idempotency and expose a SagaKeyRepository.
+    @Bean
+    @ConditionalOnMissingBean(IdempotencyFilter.class)
+    @ConditionalOnProperty(prefix = "app.idempotency", name = "expected-insertions")
+    public IdempotencyFilter idempotencyFilter(SagaKeyRepository sagaKeyRepository,
+                                               TransactionTemplate transactionTemplate,
+                                               MeterRegistry meterRegistry,
+                                               IdempotencyProperties idempotencyProperties) {
+        return new IdempotencyFilter(sagaKeyRepository, transactionTemplate, meterRegistry,
+                idempotencyProperties.getExpectedInsertions(),
+                idempotencyProperties.getFalsePositiveRate(),
+                idempotencyProperties.getRecentCapacity(),
+                idempotencyProperties.getRefreshMarginMs());
+    }
+
+    @Bean
+    public SagaLogger sagaLogger(SagaLoggingProperties sagaLoggingProperties) {
+        return new SagaLogger(sagaLoggingProperties);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(IdGenerator.class)
+    public IdGenerator idGenerator(IdGeneratorProperties idGeneratorProperties) {
+        return switch (idGeneratorProperties.getType()) {
+            case "snowflake" -> new SnowflakeIdGenerator(resolveNodeId(idGeneratorProperties.getNodeId()));
+            case "ulid" -> new UlidGenerator();
+            default -> throw new IllegalStateException("Unknown id generator: ".concat(idGeneratorProperties.getType()));
+        };
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(BlackbirdModule.class)
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(EventCodecRegistry.class)
+    public EventCodecRegistry<Event> eventCodecRegistry(CodecProperties codecProperties, ObjectMapper objectMapper) {
+        return new EventCodecRegistry<>(codecProperties, objectMapper, Event.class);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(SagaProducer.class)
+    public SagaProducer<Event> sagaProducer(KafkaTemplate<String, byte[]> kafkaTemplate,
+                                            EventCodecRegistry<Event> eventCodecRegistry,
+                                            MeterRegistry meterRegistry,
+                                            SagaLogger sagaLogger,
+                                            @Value("${spring.kafka.producer.max-in-flight-sends:1000}") Integer maxInFlightSends,
+                                            @Value("${spring.kafka.producer.backpressure-timeout-ms:5000}") Long backpressureTimeoutMs) {
+        return new SagaProducer<>("saga", kafkaTemplate, eventCodecRegistry, meterRegistry, sagaLogger,
+                SagaMetadata::from, maxInFlightSends, backpressureTimeoutMs);
+    }
+
+    @Bean
+    public SagaHistoryPublisher sagaHistoryPublisher(KafkaTemplate<String, byte[]> kafkaTemplate,
+                                                     CodecProperties codecProperties,
+                                                     ObjectMapper objectMapper,
+                                                     MeterRegistry meterRegistry,
+                                                     SagaLogger sagaLogger,
+                                                     @Value("${spring.kafka.producer.max-in-flight-sends:1000}") Integer maxInFlightSends,
+                                                     @Value("${spring.kafka.producer.backpressure-timeout-ms:5000}") Long backpressureTimeoutMs) {
+        var codecRegistry = new EventCodecRegistry<>(codecProperties, objectMapper, HistoryDelta.class);
+        var producer = new SagaProducer<>("history", kafkaTemplate, codecRegistry, meterRegistry, sagaLogger,
+                this::toHistoryMetadata, maxInFlightSends, backpressureTimeoutMs);
+        return new SagaHistoryPublisher(producer, historyTopic, historyDeltaEnabled);
+    }
+
+    @Bean
+    public NewTopic sagaHistoryTopic() {
+        return buildTopic(historyTopic);
+    }
+
+    @Bean
+    public RetryTopicResolver retryTopicResolver(@Value("${spring.kafka.retry.topics}") List<String> topics,
+                                                 @Value("${spring.kafka.retry.attempts}") Integer attempts,
+                                                 @Value("${spring.kafka.retry.initial-interval-ms}") Long initialIntervalMs,
+                                                 @Value("${spring.kafka.retry.multiplier}") Double multiplier) {
+        return new RetryTopicResolver(topics, attempts, initialIntervalMs, multiplier);
+    }
+
+    @Bean
+    public DeadLetterPublishingRecoverer deadLetterPublishingRecoverer(KafkaTemplate<String, byte[]> kafkaTemplate,
+                                                                       RetryTopicResolver retryTopicResolver) {
+        var recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate, retryTopicResolver::resolve);
+        recoverer.setHeadersFunction(retryTopicResolver::buildHeaders);
+        return recoverer;
+    }
+
+    @Bean
+    public DefaultErrorHandler errorHandler(DeadLetterPublishingRecoverer deadLetterPublishingRecoverer) {
+        return new DefaultErrorHandler(deadLetterPublishingRecoverer, new FixedBackOff(0L, 0L));
+    }
+
+    // Record listeners always run through an adapter, so next-hop sends are awaited once per poll.
+    @Bean
+    public PipelinedRecordAdapter recordAdapter(@Value("${spring.kafka.listener.virtual-threads.max-concurrency}") Integer maxConcurrency,
+                                                DeadLetterPublishingRecoverer deadLetterPublishingRecoverer) {
+        return virtualThreadsEnabled
+                ? new VirtualThreadRecordAdapter(maxConcurrency, deadLetterPublishingRecoverer)
+                : new PipelinedRecordAdapter(deadLetterPublishingRecoverer);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(name = "kafkaListenerContainerFactory")
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> kafkaListenerContainerFactory(ConsumerFactory<String, byte[]> consumerFactory,
+                                                                                                  DefaultErrorHandler errorHandler,
+                                                                                                  ObjectProvider<IdempotencyFilter> idempotencyFilter,
+                                                                                                  PipelinedRecordAdapter recordAdapter) {
+        var factory = buildContainerFactory(consumerFactory, errorHandler, idempotencyFilter);
+        factory.setBatchListener(true);
+        factory.setBatchToRecordAdapter(recordAdapter);
+        return factory;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(name = "retryKafkaListenerContainerFactory")
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> retryKafkaListenerContainerFactory(ConsumerFactory<String, byte[]> consumerFactory,
+                                                                                                       DefaultErrorHandler errorHandler,
+                                                                                                       ObjectProvider<IdempotencyFilter> idempotencyFilter) {
+        return buildContainerFactory(consumerFactory, errorHandler, idempotencyFilter);
+    }
+
+    @Bean
+    public KafkaAdmin.NewTopics retryTopics(RetryTopicResolver retryTopicResolver) {
+        return new KafkaAdmin.NewTopics(retryTopicResolver
+                .getAllTopics()
+                .stream()
+                .map(this::buildTopic)
+                .toArray(NewTopic[]::new));
+    }
+
+    @Bean
+    public DeadLetterService deadLetterService(ConsumerFactory<String, byte[]> consumerFactory,
+                                               KafkaTemplate<String, byte[]> kafkaTemplate,
+                                               RetryTopicResolver retryTopicResolver) {
+        return new DeadLetterService(consumerFactory, kafkaTemplate, retryTopicResolver, groupId);
+    }
+
+    @Bean
+    public DeadLetterController deadLetterController(DeadLetterService deadLetterService) {
+        return new DeadLetterController(deadLetterService);
+    }
+
+    // Services with an idempotency filter re-warm it whenever partitions are assigned to them.
+    private ConcurrentKafkaListenerContainerFactory<String, byte[]> buildContainerFactory(ConsumerFactory<String, byte[]> consumerFactory,
+                                                                                          DefaultErrorHandler errorHandler,
+                                                                                          ObjectProvider<IdempotencyFilter> idempotencyFilter) {
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, byte[]>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(concurrency);
+        factory.setCommonErrorHandler(errorHandler);
+        idempotencyFilter.ifAvailable(factory.getContainerProperties()::setConsumerRebalanceListener);
+        return factory;
+    }
+
+    // Without an explicit node id, replicas derive one from their hostname; set it per replica when more
+    // than a handful run, as two hostnames may land on the same node.
+    private int resolveNodeId(Integer nodeId) {
+        if (nodeId != null) {
+            return nodeId;
+        }
+        try {
+            return Math.floorMod(InetAddress.getLocalHost().getHostName().hashCode(), SnowflakeIdGenerator.MAX_NODE_ID + 1);
+        } catch (UnknownHostException ex) {
+            return ThreadLocalRandom.current().nextInt(SnowflakeIdGenerator.MAX_NODE_ID + 1);
+        }
+    }
+
+    private SagaMetadata toHistoryMetadata(HistoryDelta delta) {
+        return SagaMetadata
+                .builder()
+                .eventId(delta.getEventId())
+                .orderId(delta.getOrderId())
+                .transactionId(delta.getTransactionId())
+                .build();
+    }
+
+    private Map<String, Object> consumerProps() {
+
+        Map<String, Object> props = new HashMap<>();
+
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+
+        return props;
+    }
+
+    private Map<String, Object> producerProps() {
+
+        Map<String, Object> props = new HashMap<>();
+
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+
+        props.put(ProducerConfig.ACKS_CONFIG, acks);
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        props.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bufferMemory);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, enableIdempotence);
+
+        return props;
+    }
+
+    private NewTopic buildTopic(String name) {
+        return TopicBuilder
+                .name(name)
+                .replicas(REPLICA_COUNT)
+                .partitions(partitionCount)
+                .build();
+    }
+
+}
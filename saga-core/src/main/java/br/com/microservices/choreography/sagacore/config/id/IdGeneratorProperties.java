@@ -0,0 +1,13 @@
+package br.com.microservices.choreography.sagacore.config.id;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.id-generator")
+public class IdGeneratorProperties {
+
+    private String type = "snowflake";
+    private Integer nodeId;
+
+}
@@ -0,0 +1,15 @@
+package br.com.microservices.choreography.sagacore.config.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.idempotency")
+public class IdempotencyProperties {
+
+    private Long expectedInsertions = 1_000_000L;
+    private Double falsePositiveRate = 0.01;
+    private Integer recentCapacity = 100_000;
+    private Long refreshMarginMs = 300_000L;
+
+}
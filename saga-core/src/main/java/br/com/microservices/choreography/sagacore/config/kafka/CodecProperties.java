@@ -0,0 +1,16 @@
+package br.com.microservices.choreography.sagacore.config.kafka;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "spring.kafka.codec")
+public class CodecProperties {
+
+    private String format = "json";
+    private Map<String, String> topics = new HashMap<>();
+
+}
@@ -0,0 +1,95 @@
+package br.com.microservices.choreography.sagacore.config.kafka;
+
+import br.com.microservices.choreography.sagacore.core.producer.PendingSends;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.adapter.BatchToRecordAdapter;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.messaging.Message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Runs the records of a poll in order on the consumer thread. The next-hop sends started by the
+// listener are not awaited record by record: all of them are awaited once, after the last record
+// and before the offsets are committed. A record whose listener threw or whose send failed is
+// recovered on its own, so a failure never rolls the batch back over the other records.
+@Slf4j
+public class PipelinedRecordAdapter implements BatchToRecordAdapter<String, byte[]> {
+
+    private final ConsumerRecordRecoverer recoverer;
+
+    public PipelinedRecordAdapter(ConsumerRecordRecoverer recoverer) {
+        this.recoverer = recoverer;
+    }
+
+    @Override
+    public void adapt(List<Message<?>> messages,
+                      List<ConsumerRecord<String, byte[]>> records,
+                      Acknowledgment ack,
+                      Consumer<?, ?> consumer,
+                      Callback<String, byte[]> callback) {
+        var invocations = new ArrayList<RecordInvocation>(records.size());
+        for (int index = 0; index < records.size(); index++) {
+            invocations.add(invoke(records.get(index), messages.get(index), ack, consumer, callback));
+        }
+        awaitAndRecover(invocations, consumer);
+    }
+
+    protected RecordInvocation invoke(ConsumerRecord<String, byte[]> record,
+                                      Message<?> message,
+                                      Acknowledgment ack,
+                                      Consumer<?, ?> consumer,
+                                      Callback<String, byte[]> callback) {
+        var sends = new ArrayList<CompletableFuture<?>>();
+        try {
+            PendingSends.collectInto(sends, () -> callback.invoke(record, ack, consumer, message));
+            return new RecordInvocation(record, sends, null);
+        } catch (Exception ex) {
+            return new RecordInvocation(record, sends, ex);
+        }
+    }
+
+    protected void awaitAndRecover(List<RecordInvocation> invocations, Consumer<?, ?> consumer) {
+        var sends = invocations
+                .stream()
+                .flatMap(invocation -> invocation.sends().stream())
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(sends).exceptionally(ex -> null).join();
+
+        invocations.forEach(invocation -> {
+            var cause = invocation.failure() != null ? invocation.failure() : findSendFailure(invocation.sends());
+            if (cause != null) {
+                recover(invocation.record(), consumer, cause);
+            }
+        });
+    }
+
+    private Exception findSendFailure(List<CompletableFuture<?>> sends) {
+        for (var send : sends) {
+            try {
+                send.join();
+            } catch (RuntimeException ex) {
+                return ex;
+            }
+        }
+        return null;
+    }
+
+    private void recover(ConsumerRecord<String, byte[]> record, Consumer<?, ?> consumer, Exception cause) {
+        try {
+            recoverer.accept(record, consumer, cause);
+        } catch (RuntimeException ex) {
+            log.error("Could not recover record {}-{}@{} with key {}: ",
+                    record.topic(), record.partition(), record.offset(), record.key(), ex);
+        }
+    }
+
+    protected record RecordInvocation(ConsumerRecord<String, byte[]> record,
+                                      List<CompletableFuture<?>> sends,
+                                      Exception failure) {
+    }
+}
@@ -0,0 +1,150 @@
+package br.com.microservices.choreography.sagacore.config.kafka;
+
+import br.com.microservices.choreography.sagacore.core.codec.EventCodecException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.springframework.util.ObjectUtils.isEmpty;
+
+@Slf4j
+@Getter
+public class RetryTopicResolver {
+
+    public static final String ORIGINAL_TOPIC_HEADER = "saga-original-topic";
+    public static final String ATTEMPT_HEADER = "saga-attempt";
+    public static final String RETRY_AT_HEADER = "saga-retry-at";
+    public static final String FAILURE_CAUSE_HEADER = "saga-failure-cause";
+
+    private static final String RETRY_SUFFIX = "-retry-";
+    private static final String DEAD_LETTER_SUFFIX = "-dlt";
+    private static final Integer NO_PARTITION = -1;
+
+    private final List<String> mainTopics;
+    private final List<String> retryTopics;
+    private final List<String> deadLetterTopics;
+    private final Integer attempts;
+    private final Long initialIntervalMs;
+    private final Double multiplier;
+
+    public RetryTopicResolver(List<String> mainTopics, Integer attempts, Long initialIntervalMs, Double multiplier) {
+        this.mainTopics = mainTopics;
+        this.attempts = attempts;
+        this.initialIntervalMs = initialIntervalMs;
+        this.multiplier = multiplier;
+        this.retryTopics = mainTopics
+                .stream()
+                .flatMap(topic -> IntStream.range(0, attempts).mapToObj(tier -> getRetryTopic(topic, tier)))
+                .toList();
+        this.deadLetterTopics = mainTopics
+                .stream()
+                .map(this::getDeadLetterTopic)
+                .toList();
+    }
+
+    public String getDeadLetterTopic(String topic) {
+        return topic.concat(DEAD_LETTER_SUFFIX);
+    }
+
+    public String getOriginalTopic(ConsumerRecord<?, ?> record) {
+        var originalTopic = getHeader(record, ORIGINAL_TOPIC_HEADER);
+        return isEmpty(originalTopic) ? record.topic() : originalTopic;
+    }
+
+    public TopicPartition resolve(ConsumerRecord<?, ?> record, Exception ex) {
+        var originalTopic = getOriginalTopic(record);
+        var attempt = getAttempt(record);
+        var destination = isRetryable(ex) && attempt < attempts
+                ? getRetryTopic(originalTopic, attempt)
+                : getDeadLetterTopic(originalTopic);
+        log.warn("Sending record {}-{}@{} to {} after attempt {}: {}",
+                record.topic(), record.partition(), record.offset(), destination, attempt + 1, getRootCause(ex).getMessage());
+        return new TopicPartition(destination, NO_PARTITION);
+    }
+
+    public Headers buildHeaders(ConsumerRecord<?, ?> record, Exception ex) {
+        var attempt = getAttempt(record) + 1;
+        var retryAt = Instant.now().toEpochMilli() + getDelay(attempt);
+        var cause = getRootCause(ex);
+        var headers = new RecordHeaders();
+        headers.add(ORIGINAL_TOPIC_HEADER, toBytes(getOriginalTopic(record)));
+        headers.add(ATTEMPT_HEADER, toBytes(String.valueOf(attempt)));
+        headers.add(RETRY_AT_HEADER, toBytes(String.valueOf(retryAt)));
+        headers.add(FAILURE_CAUSE_HEADER, toBytes(cause.getClass().getName() + ": " + cause.getMessage()));
+        return headers;
+    }
+
+    public void awaitRetry(ConsumerRecord<?, ?> record) {
+        var delay = getRetryDelay(record);
+        if (delay.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public Duration getRetryDelay(ConsumerRecord<?, ?> record) {
+        var retryAt = getHeader(record, RETRY_AT_HEADER);
+        if (isEmpty(retryAt)) {
+            return Duration.ZERO;
+        }
+        return Duration.ofMillis(Math.max(0, Long.parseLong(retryAt) - Instant.now().toEpochMilli()));
+    }
+
+    public List<String> getAllTopics() {
+        return Stream.concat(retryTopics.stream(), deadLetterTopics.stream()).toList();
+    }
+
+    private String getRetryTopic(String topic, Integer tier) {
+        return topic + RETRY_SUFFIX + tier;
+    }
+
+    private Integer getAttempt(ConsumerRecord<?, ?> record) {
+        var attempt = getHeader(record, ATTEMPT_HEADER);
+        return isEmpty(attempt) ? 0 : Integer.parseInt(attempt);
+    }
+
+    private long getDelay(Integer attempt) {
+        return (long) (initialIntervalMs * Math.pow(multiplier, attempt - 1));
+    }
+
+    private boolean isRetryable(Throwable ex) {
+        for (var cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof EventCodecException) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Throwable getRootCause(Throwable ex) {
+        var cause = ex;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private String getHeader(ConsumerRecord<?, ?> record, String name) {
+        var header = record.headers().lastHeader(name);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    private byte[] toBytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,69 @@
+package br.com.microservices.choreography.sagacore.config.kafka;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.messaging.Message;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+// Runs each polled record on its own virtual thread. Records sharing a key (or a partition,
+// when unkeyed) are chained on the same thread so saga ordering per order is kept, and the
+// semaphore caps how many records hit the connection pool at once. Sends are awaited and
+// failed records recovered once per poll, as in the sequential adapter.
+public class VirtualThreadRecordAdapter extends PipelinedRecordAdapter {
+
+    private final Semaphore permits;
+
+    public VirtualThreadRecordAdapter(Integer maxConcurrency, ConsumerRecordRecoverer recoverer) {
+        super(recoverer);
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    @Override
+    public void adapt(List<Message<?>> messages,
+                      List<ConsumerRecord<String, byte[]>> records,
+                      Acknowledgment ack,
+                      Consumer<?, ?> consumer,
+                      Callback<String, byte[]> callback) {
+        Map<String, List<Integer>> indexesByKey = new LinkedHashMap<>();
+        for (int index = 0; index < records.size(); index++) {
+            indexesByKey.computeIfAbsent(getOrderingKey(records.get(index)), key -> new ArrayList<>()).add(index);
+        }
+        // Each slot is written by exactly one virtual thread; closing the executor publishes them.
+        var invocations = new RecordInvocation[records.size()];
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            indexesByKey.values().forEach(indexes -> executor.submit(() -> {
+                for (var index : indexes) {
+                    invocations[index] = invokeWithPermit(records.get(index), messages.get(index), ack, consumer, callback);
+                }
+            }));
+        }
+        awaitAndRecover(Arrays.asList(invocations), consumer);
+    }
+
+    private RecordInvocation invokeWithPermit(ConsumerRecord<String, byte[]> record,
+                                              Message<?> message,
+                                              Acknowledgment ack,
+                                              Consumer<?, ?> consumer,
+                                              Callback<String, byte[]> callback) {
+        permits.acquireUninterruptibly();
+        try {
+            return invoke(record, message, ack, consumer, callback);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private String getOrderingKey(ConsumerRecord<String, byte[]> record) {
+        var partition = record.topic() + "-" + record.partition();
+        return record.key() == null ? partition : partition + ":" + record.key();
+    }
+}
@@ -0,0 +1,17 @@
+package br.com.microservices.choreography.sagacore.config.logging;
+
+import br.com.microservices.choreography.sagacore.core.enums.ESagaLogStage;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.saga-logging")
+public class SagaLoggingProperties {
+
+    private Double samplingRate = 1.0;
+    private Map<ESagaLogStage, Double> stages = new EnumMap<>(ESagaLogStage.class);
+
+}
@@ -0,0 +1,13 @@
+package br.com.microservices.choreography.sagacore.core.codec;
+
+public interface EventCodec<T> {
+
+    String getName();
+
+    boolean supports(byte[] payload);
+
+    byte[] encode(T event);
+
+    T decode(byte[] payload);
+
+}
@@ -0,0 +1,45 @@
+package br.com.microservices.choreography.sagacore.core.codec;
+
+import br.com.microservices.choreography.sagacore.config.kafka.CodecProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.Map;
+
+public class EventCodecRegistry<T> {
+
+    private final CodecProperties properties;
+    private final Map<String, EventCodec<T>> codecsByName;
+    private final List<EventCodec<T>> decoders;
+
+    public EventCodecRegistry(CodecProperties properties, ObjectMapper objectMapper, Class<T> eventType) {
+        var jsonCodec = new JsonEventCodec<>(objectMapper, eventType);
+        var smileCodec = new SmileEventCodec<>(eventType);
+        this.properties = properties;
+        this.codecsByName = Map.of(jsonCodec.getName(), jsonCodec, smileCodec.getName(), smileCodec);
+        this.decoders = List.of(smileCodec, jsonCodec);
+    }
+
+    public byte[] encode(T event, String topic) {
+        return getCodec(topic).encode(event);
+    }
+
+    public T decode(byte[] payload) {
+        return decoders
+                .stream()
+                .filter(codec -> codec.supports(payload))
+                .findFirst()
+                .map(codec -> codec.decode(payload))
+                .orElseThrow(() -> new EventCodecException("Could not decode event payload of %d bytes".formatted(payload.length)));
+    }
+
+    private EventCodec<T> getCodec(String topic) {
+        var name = properties.getTopics().getOrDefault(topic, properties.getFormat());
+        var codec = codecsByName.get(name);
+        if (codec == null) {
+            throw new IllegalStateException("Unknown event codec: ".concat(name));
+        }
+        return codec;
+    }
+
+}
@@ -0,0 +1,49 @@
+package br.com.microservices.choreography.sagacore.core.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+
+public class JsonEventCodec<T> implements EventCodec<T> {
+
+    private static final String NAME = "json";
+
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    public JsonEventCodec(ObjectMapper objectMapper, Class<T> eventType) {
+        this.reader = objectMapper.readerFor(eventType);
+        this.writer = objectMapper.writerFor(eventType);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean supports(byte[] payload) {
+        return true;
+    }
+
+    @Override
+    public byte[] encode(T event) {
+        try {
+            return writer.writeValueAsBytes(event);
+        } catch (IOException ex) {
+            throw new EventCodecException("Could not encode event as %s".formatted(NAME), ex);
+        }
+    }
+
+    @Override
+    public T decode(byte[] payload) {
+        try {
+            return reader.readValue(payload);
+        } catch (IOException ex) {
+            throw new EventCodecException("Could not decode %s event payload of %d bytes".formatted(NAME, payload.length), ex);
+        }
+    }
+
+}
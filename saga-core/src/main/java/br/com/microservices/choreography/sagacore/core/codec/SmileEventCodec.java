@@ -0,0 +1,65 @@
+package br.com.microservices.choreography.sagacore.core.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public class SmileEventCodec<T> implements EventCodec<T> {
+
+    private static final String NAME = "smile";
+    private static final byte VERSION = 0x01;
+
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    public SmileEventCodec(Class<T> eventType) {
+        var smileMapper = SmileMapper
+                .builder()
+                .addModule(new JavaTimeModule())
+                .addModule(new BlackbirdModule())
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        this.reader = smileMapper.readerFor(eventType);
+        this.writer = smileMapper.writerFor(eventType);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean supports(byte[] payload) {
+        return payload.length > 0 && payload[0] == VERSION;
+    }
+
+    @Override
+    public byte[] encode(T event) {
+        try {
+            var output = new ByteArrayOutputStream();
+            output.write(VERSION);
+            writer.writeValue(output, event);
+            return output.toByteArray();
+        } catch (IOException ex) {
+            throw new EventCodecException("Could not encode event as %s".formatted(NAME), ex);
+        }
+    }
+
+    @Override
+    public T decode(byte[] payload) {
+        try {
+            return reader.readValue(payload, 1, payload.length - 1);
+        } catch (IOException ex) {
+            throw new EventCodecException("Could not decode %s event payload of %d bytes".formatted(NAME, payload.length), ex);
+        }
+    }
+
+}
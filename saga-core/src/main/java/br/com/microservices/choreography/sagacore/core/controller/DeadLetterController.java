@@ -0,0 +1,22 @@
+package br.com.microservices.choreography.sagacore.core.controller;
+
+import br.com.microservices.choreography.sagacore.core.dto.DeadLetterRedrive;
+import br.com.microservices.choreography.sagacore.core.service.DeadLetterService;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/dead-letter")
+public class DeadLetterController {
+
+    private final DeadLetterService deadLetterService;
+
+    public DeadLetterController(DeadLetterService deadLetterService) {
+        this.deadLetterService = deadLetterService;
+    }
+
+    @PostMapping("{topic}/redrive")
+    public DeadLetterRedrive redrive(@PathVariable String topic,
+                                     @RequestParam(defaultValue = "100") Integer limit) {
+        return deadLetterService.redrive(topic, limit);
+    }
+}
@@ -0,0 +1,4 @@
+package br.com.microservices.choreography.sagacore.core.dto;
+
+public record DeadLetterRedrive(String topic, String deadLetterTopic, int redriven) {
+}
@@ -1,6 +1,6 @@
-package br.com.microservices.choreography.inventoryservice.core.dto;
+package br.com.microservices.choreography.sagacore.core.dto;
 
-import br.com.microservices.choreography.inventoryservice.core.enums.ESagaStatus;
+import br.com.microservices.choreography.sagacore.core.enums.ESagaStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -18,8 +18,6 @@ import static org.springframework.util.ObjectUtils.isEmpty;
 @NoArgsConstructor
 public class Event {
 
-    private static final String SAGA_LOG_ID = "ORDER ID: %s | TRANSACTION ID: %s | EVENT ID %s";
-
     private String id;
     private String transactionId;
     private String orderId;
@@ -29,34 +27,36 @@ public class Event {
     private List<History> eventHistory;
     private LocalDateTime createdAt;
 
-    public String getSagaId() {
-        return String.format(SAGA_LOG_ID,
-                getPayload().getId(), getTransactionId(), getId());
-    }
-
-    public void addHistorySuccess(String currentSource) {
+    public void addHistorySuccess(String currentSource, String message) {
         this.setStatus(ESagaStatus.SUCCESS);
         this.setSource(currentSource);
 
-        addHistory(this, "Inventory updated successfully!");
+        addHistory(message);
     }
 
-    public void addHistoryFail(String message, String currentSource) {
+    public void addHistoryFail(String currentSource, String message) {
         this.setStatus(ESagaStatus.ROLLBACK_PENDING);
         this.setSource(currentSource);
 
-        addHistory(this, "Fail while doing inventory update: " + message);
+        addHistory(message);
+    }
+
+    public void addHistoryRollback(String currentSource, String message) {
+        this.setStatus(ESagaStatus.FAIL);
+        this.setSource(currentSource);
+
+        addHistory(message);
     }
 
-    public void addHistory(Event event, String message) {
+    public void addHistory(String message) {
         History history = History.builder()
-                .source(event.getSource())
-                .status(event.getStatus())
+                .source(source)
+                .status(status)
                 .message(message)
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        event.addToHistory(history);
+        addToHistory(history);
     }
 
     public void addToHistory(History history) {
@@ -0,0 +1,21 @@
+package br.com.microservices.choreography.sagacore.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class HistoryDelta {
+
+    private String eventId;
+    private String orderId;
+    private String transactionId;
+    private List<History> history;
+
+}
@@ -1,4 +1,4 @@
-package br.com.microservices.choreography.paymentservice.core.dto;
+package br.com.microservices.choreography.sagacore.core.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
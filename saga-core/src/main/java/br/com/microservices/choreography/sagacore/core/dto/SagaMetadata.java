@@ -0,0 +1,97 @@
+package br.com.microservices.choreography.sagacore.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeader;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.util.ObjectUtils.isEmpty;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SagaMetadata {
+
+    public static final String SCHEMA_VERSION = "1";
+
+    public static final String SCHEMA_VERSION_HEADER = "saga-schema-version";
+    public static final String EVENT_ID_HEADER = "saga-event-id";
+    public static final String ORDER_ID_HEADER = "saga-order-id";
+    public static final String TRANSACTION_ID_HEADER = "saga-transaction-id";
+    public static final String SOURCE_HEADER = "saga-source";
+    public static final String STATUS_HEADER = "saga-status";
+    public static final String CREATED_AT_HEADER = "saga-created-at";
+
+    private String schemaVersion;
+    private String eventId;
+    private String orderId;
+    private String transactionId;
+    private String source;
+    private String status;
+    private LocalDateTime createdAt;
+
+    public static SagaMetadata from(ConsumerRecord<?, ?> record) {
+        var headers = record.headers();
+        var createdAt = getHeader(headers, CREATED_AT_HEADER);
+        return SagaMetadata
+                .builder()
+                .schemaVersion(getHeader(headers, SCHEMA_VERSION_HEADER))
+                .eventId(getHeader(headers, EVENT_ID_HEADER))
+                .orderId(getHeader(headers, ORDER_ID_HEADER))
+                .transactionId(getHeader(headers, TRANSACTION_ID_HEADER))
+                .source(getHeader(headers, SOURCE_HEADER))
+                .status(getHeader(headers, STATUS_HEADER))
+                .createdAt(isEmpty(createdAt) ? null : LocalDateTime.parse(createdAt))
+                .build();
+    }
+
+    public static SagaMetadata from(Event event) {
+        return SagaMetadata
+                .builder()
+                .eventId(event.getId())
+                .orderId(event.getPayload().getId())
+                .transactionId(event.getTransactionId())
+                .source(event.getSource())
+                .status(event.getStatus() == null ? null : event.getStatus().name())
+                .createdAt(event.getCreatedAt())
+                .build();
+    }
+
+    public List<Header> toHeaders() {
+        List<Header> headers = new ArrayList<>(7);
+        addHeader(headers, SCHEMA_VERSION_HEADER, SCHEMA_VERSION);
+        addHeader(headers, EVENT_ID_HEADER, eventId);
+        addHeader(headers, ORDER_ID_HEADER, orderId);
+        addHeader(headers, TRANSACTION_ID_HEADER, transactionId);
+        addHeader(headers, SOURCE_HEADER, source);
+        addHeader(headers, STATUS_HEADER, status);
+        addHeader(headers, CREATED_AT_HEADER, createdAt == null ? null : createdAt.toString());
+        return headers;
+    }
+
+    public boolean hasSagaKey() {
+        return !isEmpty(orderId) && !isEmpty(transactionId);
+    }
+
+    private static String getHeader(Headers headers, String name) {
+        var header = headers.lastHeader(name);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    private static void addHeader(List<Header> headers, String name, String value) {
+        if (!isEmpty(value)) {
+            headers.add(new RecordHeader(name, value.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+}
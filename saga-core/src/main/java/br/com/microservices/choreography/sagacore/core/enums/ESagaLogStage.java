@@ -0,0 +1,11 @@
+package br.com.microservices.choreography.sagacore.core.enums;
+
+public enum ESagaLogStage {
+
+    CONSUME,
+    PROCESS,
+    TRANSITION,
+    PRODUCE,
+    HISTORY;
+
+}
@@ -0,0 +1,20 @@
+package br.com.microservices.choreography.sagacore.core.id;
+
+// Fixed-width Crockford base32: the alphabet is in ASCII order, so encoded ids sort like the numbers they encode.
+final class CrockfordBase32 {
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int BITS_PER_CHAR = 5;
+    private static final int MASK = 0x1F;
+
+    private CrockfordBase32() {
+    }
+
+    static void encode(long value, char[] target, int offset, int length) {
+        for (var index = offset + length - 1; index >= offset; index--) {
+            target[index] = ALPHABET[(int) (value & MASK)];
+            value >>>= BITS_PER_CHAR;
+        }
+    }
+
+}
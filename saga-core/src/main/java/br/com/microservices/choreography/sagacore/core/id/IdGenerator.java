@@ -0,0 +1,7 @@
+package br.com.microservices.choreography.sagacore.core.id;
+
+public interface IdGenerator {
+
+    String nextId();
+
+}
@@ -0,0 +1,59 @@
+package br.com.microservices.choreography.sagacore.core.id;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 41 bits of milliseconds since 2024-01-01, 10 bits of node id and 12 bits of sequence in one positive long,
+// encoded as 13 Crockford base32 characters.
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    public static final int MAX_NODE_ID = 1023;
+
+    private static final long EPOCH_MS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int ENCODED_LENGTH = 13;
+
+    private final Clock clock;
+    private final long node;
+    // Last issued (timestamp << SEQUENCE_BITS | sequence), advanced with CAS only.
+    private final AtomicLong lastTick = new AtomicLong();
+
+    public SnowflakeIdGenerator(int nodeId) {
+        this(nodeId, Clock.systemUTC());
+    }
+
+    public SnowflakeIdGenerator(int nodeId, Clock clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and %d: %d".formatted(MAX_NODE_ID, nodeId));
+        }
+        this.clock = clock;
+        this.node = (long) nodeId << SEQUENCE_BITS;
+    }
+
+    @Override
+    public String nextId() {
+        var id = nextLong();
+        var chars = new char[ENCODED_LENGTH];
+        CrockfordBase32.encode(id, chars, 0, ENCODED_LENGTH);
+        return new String(chars);
+    }
+
+    // The tick never goes backwards: when the clock stalls or steps back, or a millisecond runs out of
+    // sequence numbers, the next tick simply borrows from the following millisecond instead of waiting.
+    public long nextLong() {
+        var now = (clock.millis() - EPOCH_MS) << SEQUENCE_BITS;
+        long last;
+        long next;
+        do {
+            last = lastTick.get();
+            next = Math.max(now, last + 1);
+        } while (!lastTick.compareAndSet(last, next));
+
+        var timestamp = next >>> SEQUENCE_BITS;
+        return timestamp << (NODE_BITS + SEQUENCE_BITS) | node | next & SEQUENCE_MASK;
+    }
+
+}
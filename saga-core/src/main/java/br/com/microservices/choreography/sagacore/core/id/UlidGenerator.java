@@ -0,0 +1,67 @@
+package br.com.microservices.choreography.sagacore.core.id;
+
+import java.time.Clock;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+// 48 bits of milliseconds and 80 random bits, encoded as 26 Crockford base32 characters. Within the same
+// millisecond the random part is incremented instead of drawn again, so ids from one generator are monotonic.
+public class UlidGenerator implements IdGenerator {
+
+    private static final long RANDOM_HIGH_MASK = 0xFFFFL;
+    private static final long HALF_MASK = (1L << 40) - 1;
+    private static final int TIME_LENGTH = 10;
+    private static final int HALF_LENGTH = 8;
+    private static final int ENCODED_LENGTH = 26;
+
+    private final Clock clock;
+    private final AtomicReference<Ulid> last = new AtomicReference<>(new Ulid(0, 0, 0));
+
+    public UlidGenerator() {
+        this(Clock.systemUTC());
+    }
+
+    public UlidGenerator(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public String nextId() {
+        var now = clock.millis();
+        Ulid previous;
+        Ulid next;
+        do {
+            previous = last.get();
+            next = now > previous.time() ? random(now) : previous.increment();
+        } while (!last.compareAndSet(previous, next));
+        return next.encode();
+    }
+
+    private static Ulid random(long time) {
+        var random = ThreadLocalRandom.current();
+        return new Ulid(time, random.nextLong() & RANDOM_HIGH_MASK, random.nextLong());
+    }
+
+    private record Ulid(long time, long randomHigh, long randomLow) {
+
+        // An exhausted random part carries into the timestamp, borrowing the next millisecond.
+        Ulid increment() {
+            if (randomLow != -1L) {
+                return new Ulid(time, randomHigh, randomLow + 1);
+            }
+            if (randomHigh != RANDOM_HIGH_MASK) {
+                return new Ulid(time, randomHigh + 1, 0);
+            }
+            return new Ulid(time + 1, 0, 0);
+        }
+
+        String encode() {
+            var chars = new char[ENCODED_LENGTH];
+            CrockfordBase32.encode(time, chars, 0, TIME_LENGTH);
+            CrockfordBase32.encode(randomHigh << 24 | randomLow >>> 40, chars, TIME_LENGTH, HALF_LENGTH);
+            CrockfordBase32.encode(randomLow & HALF_MASK, chars, TIME_LENGTH + HALF_LENGTH, HALF_LENGTH);
+            return new String(chars);
+        }
+    }
+
+}
@@ -0,0 +1,159 @@
+package br.com.microservices.choreography.sagacore.core.idempotency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+// A bloom filter sized for expectedInsertions degrades once it holds more keys than that, so keys go to
+// a current generation that is rotated out when full. The previous generation is still checked, which
+// keeps every key for at least expectedInsertions sagas; older redeliveries fall through to the
+// service's own duplicate checks.
+@Slf4j
+public class IdempotencyFilter implements ConsumerAwareRebalanceListener {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final SagaKeyRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Long expectedInsertions;
+    private final Double falsePositiveRate;
+    private final Long refreshMarginMs;
+    private final Map<String, Boolean> recentlyProcessedSagas;
+    private final AtomicLong currentInsertions = new AtomicLong();
+    private final Counter newSagas;
+    private final Counter duplicatedSagas;
+    private final Counter databaseLookups;
+    private final Counter falsePositives;
+    private final Counter rotations;
+
+    private volatile BloomFilter currentSagas;
+    private volatile BloomFilter previousSagas;
+    private LocalDateTime warmedUntil = EPOCH;
+
+    public IdempotencyFilter(SagaKeyRepository repository,
+                             TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry,
+                             Long expectedInsertions,
+                             Double falsePositiveRate,
+                             Integer recentCapacity,
+                             Long refreshMarginMs) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.refreshMarginMs = refreshMarginMs;
+        this.currentSagas = new BloomFilter(expectedInsertions, falsePositiveRate);
+        this.previousSagas = new BloomFilter(expectedInsertions, falsePositiveRate);
+        this.recentlyProcessedSagas = Collections.synchronizedMap(new LinkedHashMap<>(recentCapacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > recentCapacity;
+            }
+        });
+
+        this.newSagas = meterRegistry.counter("saga.idempotency.lookups", "result", "new");
+        this.duplicatedSagas = meterRegistry.counter("saga.idempotency.lookups", "result", "duplicate");
+        this.databaseLookups = meterRegistry.counter("saga.idempotency.lookups", "result", "database");
+        this.falsePositives = meterRegistry.counter("saga.idempotency.false-positives");
+        this.rotations = meterRegistry.counter("saga.idempotency.rotations");
+        Gauge.builder("saga.idempotency.hit-rate", this, IdempotencyFilter::getHitRate).register(meterRegistry);
+    }
+
+    public boolean isProcessed(String orderId, String transactionId, BooleanSupplier databaseCheck) {
+        var sagaKey = getSagaKey(orderId, transactionId);
+
+        if (!mightContain(sagaKey)) {
+            newSagas.increment();
+            return false;
+        }
+
+        if (recentlyProcessedSagas.containsKey(sagaKey)) {
+            duplicatedSagas.increment();
+            return true;
+        }
+
+        databaseLookups.increment();
+        var processed = databaseCheck.getAsBoolean();
+        if (processed) {
+            recentlyProcessedSagas.put(sagaKey, Boolean.TRUE);
+        } else {
+            falsePositives.increment();
+        }
+        return processed;
+    }
+
+    public boolean mightBeProcessed(String orderId, String transactionId) {
+        return mightContain(getSagaKey(orderId, transactionId));
+    }
+
+    public void markProcessed(String orderId, String transactionId) {
+        var sagaKey = getSagaKey(orderId, transactionId);
+        put(sagaKey);
+        recentlyProcessedSagas.put(sagaKey, Boolean.TRUE);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        refresh();
+    }
+
+    public synchronized void refresh() {
+        var since = warmedUntil.minusNanos(refreshMarginMs * 1_000_000);
+        var now = LocalDateTime.now();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try (var sagaKeys = repository.findSagaKeysCreatedSince(since)) {
+                sagaKeys.forEach(this::put);
+            }
+        });
+
+        warmedUntil = now;
+        log.info("Idempotency filter warmed with sagas processed since {}", since);
+    }
+
+    private boolean mightContain(String sagaKey) {
+        return currentSagas.mightContain(sagaKey) || previousSagas.mightContain(sagaKey);
+    }
+
+    private void put(String sagaKey) {
+        currentSagas.put(sagaKey);
+        if (currentInsertions.incrementAndGet() >= expectedInsertions) {
+            rotate();
+        }
+    }
+
+    private synchronized void rotate() {
+        if (currentInsertions.get() < expectedInsertions) {
+            return;
+        }
+        previousSagas = currentSagas;
+        currentSagas = new BloomFilter(expectedInsertions, falsePositiveRate);
+        currentInsertions.set(0);
+        rotations.increment();
+        log.info("Idempotency filter rotated after {} sagas", expectedInsertions);
+    }
+
+    private double getHitRate() {
+        var answered = newSagas.count() + duplicatedSagas.count();
+        var total = answered + databaseLookups.count();
+        return total == 0 ? 0 : answered / total;
+    }
+
+    private String getSagaKey(String orderId, String transactionId) {
+        return orderId.concat(":").concat(transactionId);
+    }
+
+}
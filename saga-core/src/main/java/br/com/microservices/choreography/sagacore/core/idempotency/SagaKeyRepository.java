@@ -0,0 +1,11 @@
+package br.com.microservices.choreography.sagacore.core.idempotency;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+// Port to the store holding the sagas a service already processed, as "orderId:transactionId" keys.
+public interface SagaKeyRepository {
+
+    Stream<String> findSagaKeysCreatedSince(LocalDateTime createdAt);
+
+}
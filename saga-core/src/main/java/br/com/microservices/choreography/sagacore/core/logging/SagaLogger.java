@@ -0,0 +1,76 @@
+package br.com.microservices.choreography.sagacore.core.logging;
+
+import br.com.microservices.choreography.sagacore.config.logging.SagaLoggingProperties;
+import br.com.microservices.choreography.sagacore.core.dto.SagaMetadata;
+import br.com.microservices.choreography.sagacore.core.enums.ESagaLogStage;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.spi.LoggingEventBuilder;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.springframework.util.ObjectUtils.isEmpty;
+
+@Slf4j(topic = "saga")
+public class SagaLogger {
+
+    private static final int SAMPLING_SCALE = 10_000;
+
+    private final Map<ESagaLogStage, Integer> samplingThresholds = new EnumMap<>(ESagaLogStage.class);
+
+    public SagaLogger(SagaLoggingProperties properties) {
+        for (var stage : ESagaLogStage.values()) {
+            var rate = properties.getStages().getOrDefault(stage, properties.getSamplingRate());
+            samplingThresholds.put(stage, (int) Math.round(rate * SAMPLING_SCALE));
+        }
+    }
+
+    public void info(ESagaLogStage stage, SagaMetadata metadata, String message, Object arg) {
+        if (log.isInfoEnabled() && isSampled(stage, metadata)) {
+            withSaga(log.atInfo(), stage, metadata).log(message, arg);
+        }
+    }
+
+    public void warn(ESagaLogStage stage, SagaMetadata metadata, String message, Object arg) {
+        if (log.isWarnEnabled()) {
+            withSaga(log.atWarn(), stage, metadata).log(message, arg);
+        }
+    }
+
+    public void payload(ESagaLogStage stage, SagaMetadata metadata, Object payload) {
+        if (log.isDebugEnabled()) {
+            withSaga(log.atDebug(), stage, metadata)
+                    .addKeyValue("payload", payload)
+                    .log("Saga payload");
+        }
+    }
+
+    public void failure(ESagaLogStage stage, SagaMetadata metadata, Object payload, Throwable ex, String message, Object arg) {
+        withSaga(log.atError(), stage, metadata)
+                .addKeyValue("payload", payload)
+                .setCause(ex)
+                .log(message, arg);
+    }
+
+    // Key/values hold references only, so nothing is formatted unless the event is actually written.
+    private LoggingEventBuilder withSaga(LoggingEventBuilder builder, ESagaLogStage stage, SagaMetadata metadata) {
+        return builder
+                .addKeyValue("stage", stage)
+                .addKeyValue("orderId", metadata.getOrderId())
+                .addKeyValue("transactionId", metadata.getTransactionId())
+                .addKeyValue("eventId", metadata.getEventId())
+                .addKeyValue("source", metadata.getSource())
+                .addKeyValue("status", metadata.getStatus());
+    }
+
+    // Sampling by transaction id keeps every hop of a sampled saga, in every service.
+    private boolean isSampled(ESagaLogStage stage, SagaMetadata metadata) {
+        var threshold = samplingThresholds.get(stage);
+        if (threshold >= SAMPLING_SCALE) {
+            return true;
+        }
+        var sagaKey = isEmpty(metadata.getTransactionId()) ? metadata.getOrderId() : metadata.getTransactionId();
+        return threshold > 0 && sagaKey != null && Math.floorMod(sagaKey.hashCode(), SAMPLING_SCALE) < threshold;
+    }
+
+}
@@ -0,0 +1,33 @@
+package br.com.microservices.choreography.sagacore.core.producer;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Next-hop sends started while a record adapter runs a listener are handed to the adapter, which
+// awaits all of them once per poll. Anywhere else (retry listeners, batch fallbacks) the send is
+// awaited on the spot, so a failed send still fails the record.
+public final class PendingSends {
+
+    private static final ThreadLocal<List<CompletableFuture<?>>> COLLECTOR = new ThreadLocal<>();
+
+    private PendingSends() {
+    }
+
+    public static void await(CompletableFuture<?> send) {
+        var sends = COLLECTOR.get();
+        if (sends == null) {
+            send.join();
+        } else {
+            sends.add(send);
+        }
+    }
+
+    public static void collectInto(List<CompletableFuture<?>> sends, Runnable action) {
+        COLLECTOR.set(sends);
+        try {
+            action.run();
+        } finally {
+            COLLECTOR.remove();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.microservices.choreography.sagacore.core.producer;
+
+import br.com.microservices.choreography.sagacore.core.dto.Event;
+import br.com.microservices.choreography.sagacore.core.dto.HistoryDelta;
+
+import static org.springframework.util.ObjectUtils.isEmpty;
+
+public class SagaHistoryPublisher {
+
+    private final SagaProducer<HistoryDelta> producer;
+    private final String historyTopic;
+    private final Boolean deltaEnabled;
+
+    public SagaHistoryPublisher(SagaProducer<HistoryDelta> producer, String historyTopic, Boolean deltaEnabled) {
+        this.producer = producer;
+        this.historyTopic = historyTopic;
+        this.deltaEnabled = deltaEnabled;
+    }
+
+    // In delta mode the entries appended by this hop go to the history topic and are
+    // stripped from the event, so saga topics carry a constant-size payload.
+    public void publishDelta(Event event) {
+        if (!deltaEnabled || isEmpty(event.getEventHistory())) {
+            return;
+        }
+        var delta = HistoryDelta
+                .builder()
+                .eventId(event.getId())
+                .orderId(event.getOrderId())
+                .transactionId(event.getTransactionId())
+                .history(event.getEventHistory())
+                .build();
+        producer.sendEvent(delta, historyTopic);
+        event.setEventHistory(null);
+    }
+
+    public boolean isDeltaEnabled() {
+        return deltaEnabled;
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.microservices.choreography.sagacore.core.producer;
+
+import br.com.microservices.choreography.sagacore.core.codec.EventCodecRegistry;
+import br.com.microservices.choreography.sagacore.core.dto.SagaMetadata;
+import br.com.microservices.choreography.sagacore.core.enums.ESagaLogStage;
+import br.com.microservices.choreography.sagacore.core.logging.SagaLogger;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+public class SagaProducer<T> {
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final EventCodecRegistry<T> codecRegistry;
+    private final MeterRegistry meterRegistry;
+    private final SagaLogger sagaLogger;
+    private final Function<T, SagaMetadata> metadataExtractor;
+    private final Semaphore inFlightPermits;
+    private final Long backpressureTimeoutMs;
+    private final AtomicLong inFlightCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    // The name tags this producer's in-flight gauge, as a service may run several producers.
+    public SagaProducer(String name,
+                        KafkaTemplate<String, byte[]> kafkaTemplate,
+                        EventCodecRegistry<T> codecRegistry,
+                        MeterRegistry meterRegistry,
+                        SagaLogger sagaLogger,
+                        Function<T, SagaMetadata> metadataExtractor,
+                        Integer maxInFlightSends,
+                        Long backpressureTimeoutMs) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.codecRegistry = codecRegistry;
+        this.meterRegistry = meterRegistry;
+        this.sagaLogger = sagaLogger;
+        this.metadataExtractor = metadataExtractor;
+        this.inFlightPermits = new Semaphore(maxInFlightSends);
+        this.backpressureTimeoutMs = backpressureTimeoutMs;
+
+        meterRegistry.gauge("saga.producer.in-flight", Tags.of("producer", name), inFlightCount);
+    }
+
+    public CompletableFuture<SendResult<String, byte[]>> sendEvent(T event, String topic) {
+        var metadata = metadataExtractor.apply(event);
+        if (!acquirePermit()) {
+            var ex = new IllegalStateException("Gave up waiting to send data to topic %s after %d ms, there are %d sends in flight"
+                    .formatted(topic, backpressureTimeoutMs, inFlightCount.get()));
+            onFailure(event, metadata, topic, ex);
+            return CompletableFuture.failedFuture(ex);
+        }
+        inFlightCount.incrementAndGet();
+        try {
+            sagaLogger.info(ESagaLogStage.PRODUCE, metadata, "Sending event to topic {}", topic);
+            sagaLogger.payload(ESagaLogStage.PRODUCE, metadata, event);
+            return kafkaTemplate
+                    .send(buildRecord(event, topic, metadata))
+                    .whenComplete((result, ex) -> {
+                        releasePermit();
+                        if (ex != null) {
+                            onFailure(event, metadata, topic, ex);
+                        } else {
+                            meterRegistry.counter("saga.producer.sent", "topic", topic).increment();
+                        }
+                    });
+        } catch (Exception ex) {
+            releasePermit();
+            onFailure(event, metadata, topic, ex);
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    public long getInFlightCount() {
+        return inFlightCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    // Waits at most backpressureTimeoutMs: past that the send fails like a broker error would, so the
+    // record goes through the retry topics instead of holding the listener while the broker is down.
+    private boolean acquirePermit() {
+        try {
+            return inFlightPermits.tryAcquire(backpressureTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Routing metadata travels as headers so consumers can route, dedupe and log without decoding the payload.
+    private ProducerRecord<String, byte[]> buildRecord(T event, String topic, SagaMetadata metadata) {
+        return new ProducerRecord<>(topic, null, metadata.getOrderId(), codecRegistry.encode(event, topic), metadata.toHeaders());
+    }
+
+    private void releasePermit() {
+        inFlightCount.decrementAndGet();
+        inFlightPermits.release();
+    }
+
+    private void onFailure(T event, SagaMetadata metadata, String topic, Throwable ex) {
+        failedCount.incrementAndGet();
+        meterRegistry.counter("saga.producer.failed", "topic", topic).increment();
+        sagaLogger.failure(ESagaLogStage.PRODUCE, metadata, event, ex, "Error trying to send data to topic {}", topic);
+    }
+}
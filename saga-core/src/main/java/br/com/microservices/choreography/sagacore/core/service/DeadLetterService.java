@@ -0,0 +1,108 @@
+package br.com.microservices.choreography.sagacore.core.service;
+
+import br.com.microservices.choreography.sagacore.config.kafka.RetryTopicResolver;
+import br.com.microservices.choreography.sagacore.core.dto.DeadLetterRedrive;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+@Slf4j
+public class DeadLetterService {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(2);
+    private static final String REDRIVE_GROUP_SUFFIX = "-dlt-redrive";
+    private static final String DLT_HEADER_PREFIX = KafkaHeaders.PREFIX + "dlt-";
+    private static final Set<String> RETRY_HEADERS = Set.of(
+            RetryTopicResolver.ATTEMPT_HEADER,
+            RetryTopicResolver.RETRY_AT_HEADER,
+            RetryTopicResolver.FAILURE_CAUSE_HEADER
+    );
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final RetryTopicResolver retryTopicResolver;
+    private final String groupId;
+
+    public DeadLetterService(ConsumerFactory<String, byte[]> consumerFactory,
+                             KafkaTemplate<String, byte[]> kafkaTemplate,
+                             RetryTopicResolver retryTopicResolver,
+                             String groupId) {
+        this.consumerFactory = consumerFactory;
+        this.kafkaTemplate = kafkaTemplate;
+        this.retryTopicResolver = retryTopicResolver;
+        this.groupId = groupId;
+    }
+
+    public DeadLetterRedrive redrive(String topic, Integer limit) {
+        if (!retryTopicResolver.getMainTopics().contains(topic)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "There is no dead-letter topic for ".concat(topic));
+        }
+        if (limit <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The redrive limit must be positive.");
+        }
+        var deadLetterTopic = retryTopicResolver.getDeadLetterTopic(topic);
+        var redriven = 0;
+        try (var consumer = consumerFactory.createConsumer(groupId + REDRIVE_GROUP_SUFFIX, null, null, getRedriveProperties(limit))) {
+            consumer.assign(consumer
+                    .partitionsFor(deadLetterTopic)
+                    .stream()
+                    .map(partition -> new TopicPartition(partition.topic(), partition.partition()))
+                    .toList());
+            while (redriven < limit) {
+                var records = consumer.poll(POLL_TIMEOUT);
+                if (records.isEmpty()) {
+                    break;
+                }
+                for (var record : records) {
+                    if (redriven >= limit) {
+                        break;
+                    }
+                    kafkaTemplate.send(new ProducerRecord<>(topic, null, record.key(), record.value(), redriveHeaders(record))).join();
+                    consumer.commitSync(Map.of(
+                            new TopicPartition(record.topic(), record.partition()),
+                            new OffsetAndMetadata(record.offset() + 1)
+                    ));
+                    redriven++;
+                }
+            }
+        }
+        log.info("Redrove {} records from {} back to {}", redriven, deadLetterTopic, topic);
+        return new DeadLetterRedrive(topic, deadLetterTopic, redriven);
+    }
+
+    // Saga metadata, dedupe and codec headers travel with the record; only the retry bookkeeping
+    // and the dead-letter diagnostics are dropped so the redriven record starts a fresh retry cycle.
+    private Headers redriveHeaders(ConsumerRecord<String, byte[]> record) {
+        var headers = new RecordHeaders();
+        for (var header : record.headers()) {
+            if (!RETRY_HEADERS.contains(header.key()) && !header.key().startsWith(DLT_HEADER_PREFIX)) {
+                headers.add(header);
+            }
+        }
+        return headers;
+    }
+
+    private Properties getRedriveProperties(Integer limit) {
+        var properties = new Properties();
+        properties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        properties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        properties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, limit);
+        return properties;
+    }
+
+}
@@ -0,0 +1,170 @@
+package br.com.microservices.choreography.sagacore.core.timeout;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Keyed timeouts on a hashed wheel: schedule and cancel only touch a map and a lock-free queue, and the
+// buckets (intrusive doubly linked lists) are owned by whoever calls advance, so every operation is O(1).
+public class HashedTimingWheel {
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final long tickMs;
+    private final int mask;
+    private final Bucket[] buckets;
+    private final Map<String, Timeout> timeouts = new ConcurrentHashMap<>();
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private long currentTick;
+
+    public HashedTimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive: %d, %d".formatted(tickMs, wheelSize));
+        }
+        var size = Integer.highestOneBit(wheelSize) == wheelSize ? wheelSize : Integer.highestOneBit(wheelSize) << 1;
+        this.tickMs = tickMs;
+        this.mask = size - 1;
+        this.buckets = new Bucket[size];
+        for (var index = 0; index < size; index++) {
+            buckets[index] = new Bucket();
+        }
+        this.currentTick = startMs / tickMs;
+    }
+
+    // Scheduling a key again replaces its previous timeout.
+    public void schedule(String key, long deadlineMs) {
+        var timeout = new Timeout(key, Math.ceilDiv(deadlineMs, tickMs));
+        var previous = timeouts.put(key, timeout);
+        if (previous != null && previous.transition(CANCELLED)) {
+            cancelled.add(previous);
+        }
+        scheduled.add(timeout);
+    }
+
+    public boolean cancel(String key) {
+        var timeout = timeouts.remove(key);
+        if (timeout == null || !timeout.transition(CANCELLED)) {
+            return false;
+        }
+        cancelled.add(timeout);
+        return true;
+    }
+
+    public int size() {
+        return timeouts.size();
+    }
+
+    // Runs every tick up to now, handing each expired key to the callback once.
+    public synchronized void advance(long nowMs, Consumer<String> onExpired) {
+        var targetTick = nowMs / tickMs;
+        while (currentTick <= targetTick) {
+            unlinkCancelled();
+            transferScheduled();
+            expire(buckets[(int) (currentTick & mask)], onExpired);
+            currentTick++;
+        }
+    }
+
+    private void unlinkCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void transferScheduled() {
+        Timeout timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            if (timeout.state.get() != PENDING) {
+                continue;
+            }
+            var tick = Math.max(timeout.deadlineTick, currentTick);
+            timeout.remainingRounds = (tick - currentTick) / buckets.length;
+            buckets[(int) (tick & mask)].add(timeout);
+        }
+    }
+
+    private void expire(Bucket bucket, Consumer<String> onExpired) {
+        var timeout = bucket.head;
+        while (timeout != null) {
+            var next = timeout.next;
+            if (timeout.state.get() != PENDING) {
+                bucket.remove(timeout);
+            } else if (timeout.remainingRounds <= 0) {
+                bucket.remove(timeout);
+                if (timeout.transition(EXPIRED)) {
+                    timeouts.remove(timeout.key, timeout);
+                    onExpired.accept(timeout.key);
+                }
+            } else {
+                timeout.remainingRounds--;
+            }
+            timeout = next;
+        }
+    }
+
+    private static final class Timeout {
+
+        private final String key;
+        private final long deadlineTick;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout previous;
+        private Timeout next;
+
+        private Timeout(String key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+
+        private boolean transition(int target) {
+            return state.compareAndSet(PENDING, target);
+        }
+    }
+
+    private static final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            timeout.previous = tail;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.previous == null) {
+                head = timeout.next;
+            } else {
+                timeout.previous.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.previous;
+            } else {
+                timeout.next.previous = timeout.previous;
+            }
+            timeout.bucket = null;
+            timeout.previous = null;
+            timeout.next = null;
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+package br.com.microservices.choreography.sagacore.config.kafka;
+
+import br.com.microservices.choreography.sagacore.core.codec.EventCodecException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Headers;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static br.com.microservices.choreography.sagacore.config.kafka.RetryTopicResolver.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryTopicResolverTest {
+
+    private static final String TOPIC = "notify-ending";
+    private static final int ATTEMPTS = 3;
+
+    private final RetryTopicResolver resolver = new RetryTopicResolver(List.of(TOPIC, "saga-history"), ATTEMPTS, 1000L, 5.0);
+
+    @Test
+    void createsOneRetryTierPerAttemptAndOneDeadLetterTopicPerMainTopic() {
+        assertEquals(List.of(
+                "notify-ending-retry-0", "notify-ending-retry-1", "notify-ending-retry-2",
+                "saga-history-retry-0", "saga-history-retry-1", "saga-history-retry-2"
+        ), resolver.getRetryTopics());
+        assertEquals(List.of("notify-ending-dlt", "saga-history-dlt"), resolver.getDeadLetterTopics());
+        assertEquals(8, resolver.getAllTopics().size());
+    }
+
+    @Test
+    void sendsAFirstFailureToTheFirstRetryTier() {
+        var destination = resolver.resolve(record(TOPIC), new IllegalStateException("Mongo unavailable"));
+
+        assertEquals(new TopicPartition("notify-ending-retry-0", -1), destination);
+    }
+
+    @Test
+    void walksTheRetryTiersOfTheOriginalTopic() {
+        var retried = record("notify-ending-retry-0");
+        setHeader(retried.headers(), ORIGINAL_TOPIC_HEADER, TOPIC);
+        setHeader(retried.headers(), ATTEMPT_HEADER, "1");
+
+        assertEquals("notify-ending-retry-1", resolver.resolve(retried, new IllegalStateException()).topic());
+    }
+
+    @Test
+    void sendsToTheDeadLetterTopicOnceTheAttemptsAreExhausted() {
+        var retried = record("notify-ending-retry-2");
+        setHeader(retried.headers(), ORIGINAL_TOPIC_HEADER, TOPIC);
+        setHeader(retried.headers(), ATTEMPT_HEADER, String.valueOf(ATTEMPTS));
+
+        assertEquals("notify-ending-dlt", resolver.resolve(retried, new IllegalStateException()).topic());
+    }
+
+    @Test
+    void sendsUndecodableRecordsStraightToTheDeadLetterTopic() {
+        var cause = new RuntimeException("Listener failed", new EventCodecException("Could not decode event payload of 3 bytes"));
+
+        assertEquals("notify-ending-dlt", resolver.resolve(record(TOPIC), cause).topic());
+    }
+
+    @Test
+    void buildsHeadersForTheNextAttempt() {
+        var before = Instant.now().toEpochMilli();
+        var headers = resolver.buildHeaders(record(TOPIC), new IllegalStateException("outer", new IllegalArgumentException("root")));
+
+        assertEquals(TOPIC, getHeader(headers, ORIGINAL_TOPIC_HEADER));
+        assertEquals("1", getHeader(headers, ATTEMPT_HEADER));
+        assertEquals("java.lang.IllegalArgumentException: root", getHeader(headers, FAILURE_CAUSE_HEADER));
+        assertTrue(Long.parseLong(getHeader(headers, RETRY_AT_HEADER)) >= before + 1000);
+    }
+
+    @Test
+    void backsOffExponentiallyBetweenAttempts() {
+        var retried = record("notify-ending-retry-0");
+        setHeader(retried.headers(), ORIGINAL_TOPIC_HEADER, TOPIC);
+        setHeader(retried.headers(), ATTEMPT_HEADER, "1");
+
+        var before = Instant.now().toEpochMilli();
+        var headers = resolver.buildHeaders(retried, new IllegalStateException());
+
+        assertEquals("2", getHeader(headers, ATTEMPT_HEADER));
+        assertTrue(Long.parseLong(getHeader(headers, RETRY_AT_HEADER)) >= before + 5000);
+    }
+
+    @Test
+    void keepsTheOriginalTopicAndDelayOfRetriedRecords() {
+        var retried = record("notify-ending-retry-0");
+        setHeader(retried.headers(), ORIGINAL_TOPIC_HEADER, TOPIC);
+        setHeader(retried.headers(), RETRY_AT_HEADER, String.valueOf(Instant.now().toEpochMilli() + 60_000));
+
+        assertEquals(TOPIC, resolver.getOriginalTopic(retried));
+        assertEquals(TOPIC, resolver.getOriginalTopic(record(TOPIC)));
+        assertTrue(resolver.getRetryDelay(retried).compareTo(Duration.ofSeconds(50)) > 0);
+        assertEquals(Duration.ZERO, resolver.getRetryDelay(record(TOPIC)));
+    }
+
+    private ConsumerRecord<String, byte[]> record(String topic) {
+        return new ConsumerRecord<>(topic, 0, 42L, "order-1", new byte[0]);
+    }
+
+    private void setHeader(Headers headers, String name, String value) {
+        headers.add(name, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String getHeader(Headers headers, String name) {
+        return new String(headers.lastHeader(name).value(), StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,101 @@
+package br.com.microservices.choreography.sagacore.core.codec;
+
+import br.com.microservices.choreography.sagacore.config.kafka.CodecProperties;
+import br.com.microservices.choreography.sagacore.core.dto.Event;
+import br.com.microservices.choreography.sagacore.core.dto.History;
+import br.com.microservices.choreography.sagacore.core.dto.Order;
+import br.com.microservices.choreography.sagacore.core.dto.OrderProducts;
+import br.com.microservices.choreography.sagacore.core.dto.Product;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static br.com.microservices.choreography.sagacore.core.enums.ESagaStatus.SUCCESS;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventCodecRegistryTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 6, 1, 12, 30, 15, 123_000_000);
+
+    private final CodecProperties properties = new CodecProperties();
+    private final EventCodecRegistry<Event> registry = new EventCodecRegistry<>(
+            properties,
+            JsonMapper.builder().addModule(new JavaTimeModule()).build(),
+            Event.class
+    );
+
+    @Test
+    void roundTripsJson() {
+        var payload = registry.encode(event(), "product-validation-start");
+
+        assertEquals('{', payload[0]);
+        assertEquals(event(), registry.decode(payload));
+    }
+
+    @Test
+    void roundTripsSmile() {
+        properties.setFormat("smile");
+        var payload = registry.encode(event(), "product-validation-start");
+
+        assertEquals(0x01, payload[0]);
+        assertEquals(event(), registry.decode(payload));
+    }
+
+    // Consumers decode by the leading byte, so topics can switch formats while records of both are in flight.
+    @Test
+    void encodesPerTopicAndDecodesEitherFormat() {
+        properties.setTopics(Map.of("payment-success", "smile"));
+
+        var json = registry.encode(event(), "product-validation-start");
+        var smile = registry.encode(event(), "payment-success");
+
+        assertNotEquals(json[0], smile[0]);
+        assertEquals(registry.decode(json), registry.decode(smile));
+    }
+
+    @Test
+    void rejectsUnknownFormats() {
+        properties.setFormat("avro");
+
+        assertThrows(IllegalStateException.class, () -> registry.encode(event(), "product-validation-start"));
+    }
+
+    @Test
+    void rejectsUndecodablePayloads() {
+        assertThrows(EventCodecException.class, () -> registry.decode("not json".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(EventCodecException.class, () -> registry.decode(new byte[]{0x01, 0x7f}));
+        assertThrows(EventCodecException.class, () -> registry.decode(new byte[0]));
+    }
+
+    private Event event() {
+        var event = Event.builder()
+                .id("0H3ZQ5G7N4K2A")
+                .transactionId("1717245015123_a1b2c3")
+                .orderId("0H3ZQ5G7N4K2B")
+                .payload(Order.builder()
+                        .id("0H3ZQ5G7N4K2B")
+                        .transactionId("1717245015123_a1b2c3")
+                        .products(List.of(new OrderProducts(new Product("COMIC_BOOKS", 15.50), 2)))
+                        .createdAt(CREATED_AT)
+                        .totalAmount(31.0)
+                        .totalItems(2)
+                        .build())
+                .source("ORDER_SERVICE")
+                .status(SUCCESS)
+                .createdAt(CREATED_AT)
+                .build();
+        event.addToHistory(History.builder()
+                .source("ORDER_SERVICE")
+                .status(SUCCESS)
+                .message("Saga started!")
+                .createdAt(CREATED_AT)
+                .build());
+        return event;
+    }
+
+}
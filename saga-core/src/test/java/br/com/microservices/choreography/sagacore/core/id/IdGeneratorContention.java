@@ -0,0 +1,49 @@
+package br.com.microservices.choreography.sagacore.core.id;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Generates ids from several threads at once and checks every thread saw them strictly increasing
+// and that no id was handed out twice.
+final class IdGeneratorContention {
+
+    private IdGeneratorContention() {
+    }
+
+    static void assertMonotonicAndUnique(IdGenerator generator, int threads, int idsPerThread) throws Exception {
+        var start = new CountDownLatch(1);
+        var futures = new ArrayList<Future<List<String>>>();
+        try (var executor = Executors.newFixedThreadPool(threads)) {
+            for (var thread = 0; thread < threads; thread++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    var ids = new ArrayList<String>(idsPerThread);
+                    for (var index = 0; index < idsPerThread; index++) {
+                        ids.add(generator.nextId());
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+
+            var unique = new HashSet<String>();
+            for (var future : futures) {
+                var ids = future.get();
+                for (var index = 1; index < ids.size(); index++) {
+                    assertTrue(ids.get(index).compareTo(ids.get(index - 1)) > 0,
+                            "%s issued after %s".formatted(ids.get(index), ids.get(index - 1)));
+                }
+                unique.addAll(ids);
+            }
+            assertEquals(threads * idsPerThread, unique.size());
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+package br.com.microservices.choreography.sagacore.core.id;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+// Fixed clock that tests can move in both directions.
+class MutableClock extends Clock {
+
+    private volatile long millis;
+
+    MutableClock(Instant instant) {
+        this.millis = instant.toEpochMilli();
+    }
+
+    void add(long deltaMs) {
+        millis += deltaMs;
+    }
+
+    @Override
+    public long millis() {
+        return millis;
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return this;
+    }
+
+}
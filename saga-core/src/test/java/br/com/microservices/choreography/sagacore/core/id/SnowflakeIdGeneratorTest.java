@@ -0,0 +1,91 @@
+package br.com.microservices.choreography.sagacore.core.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T12:00:00Z");
+    private static final int NODE_ID = 42;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int TIMESTAMP_SHIFT = 22;
+
+    private final Clock fixedClock = Clock.fixed(NOW, ZoneOffset.UTC);
+
+    @Test
+    void encodesThirteenCharactersThatSortLikeTheIds() {
+        var generator = new SnowflakeIdGenerator(NODE_ID, fixedClock);
+
+        var first = generator.nextId();
+        var second = generator.nextId();
+
+        assertEquals(13, first.length());
+        assertTrue(second.compareTo(first) > 0);
+    }
+
+    @Test
+    void carriesTheNodeIdAndTheClockMillis() {
+        var generator = new SnowflakeIdGenerator(NODE_ID, fixedClock);
+
+        var id = generator.nextLong();
+
+        assertEquals(NODE_ID, (id >>> SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE_ID);
+        assertEquals(NOW.toEpochMilli() - Instant.parse("2024-01-01T00:00:00Z").toEpochMilli(), id >>> TIMESTAMP_SHIFT);
+        assertEquals(0, id & 0xFFF);
+    }
+
+    @Test
+    void borrowsTheNextMillisecondWhenTheSequenceRunsOut() {
+        var generator = new SnowflakeIdGenerator(NODE_ID, fixedClock);
+
+        var first = generator.nextLong();
+        var last = first;
+        for (var index = 1; index < 1 << SEQUENCE_BITS; index++) {
+            var id = generator.nextLong();
+            assertTrue(id > last);
+            last = id;
+        }
+        var borrowed = generator.nextLong();
+
+        assertEquals(first >>> TIMESTAMP_SHIFT, last >>> TIMESTAMP_SHIFT);
+        assertEquals(0xFFF, last & 0xFFF);
+        assertEquals((first >>> TIMESTAMP_SHIFT) + 1, borrowed >>> TIMESTAMP_SHIFT);
+        assertEquals(0, borrowed & 0xFFF);
+    }
+
+    @Test
+    void staysMonotonicWhenTheClockGoesBackwards() {
+        var clock = new MutableClock(NOW);
+        var generator = new SnowflakeIdGenerator(NODE_ID, clock);
+
+        var before = generator.nextLong();
+        clock.add(-1_000);
+        var after = generator.nextLong();
+        clock.add(2_000);
+        var recovered = generator.nextLong();
+
+        assertTrue(after > before);
+        assertEquals(before >>> TIMESTAMP_SHIFT, after >>> TIMESTAMP_SHIFT);
+        assertTrue(recovered > after);
+        assertEquals((before >>> TIMESTAMP_SHIFT) + 1_000, recovered >>> TIMESTAMP_SHIFT);
+    }
+
+    @Test
+    void staysMonotonicAndUniqueUnderContention() throws Exception {
+        // Far more ids than one millisecond holds, so the threads also race on the borrowed milliseconds.
+        IdGeneratorContention.assertMonotonicAndUnique(new SnowflakeIdGenerator(NODE_ID, fixedClock), 8, 10_000);
+    }
+
+    @Test
+    void rejectsNodeIdsOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1, fixedClock));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1, fixedClock));
+    }
+
+}
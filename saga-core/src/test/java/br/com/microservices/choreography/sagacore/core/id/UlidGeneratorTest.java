@@ -0,0 +1,70 @@
+package br.com.microservices.choreography.sagacore.core.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UlidGeneratorTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T12:00:00Z");
+    private static final int TIME_LENGTH = 10;
+
+    private final Clock fixedClock = Clock.fixed(NOW, ZoneOffset.UTC);
+
+    @Test
+    void encodesTwentySixCharactersWithTheClockMillisFirst() {
+        var id = new UlidGenerator(fixedClock).nextId();
+
+        var time = new char[TIME_LENGTH];
+        CrockfordBase32.encode(NOW.toEpochMilli(), time, 0, TIME_LENGTH);
+
+        assertEquals(26, id.length());
+        assertEquals(new String(time), id.substring(0, TIME_LENGTH));
+    }
+
+    @Test
+    void incrementsTheRandomPartWithinTheSameMillisecond() {
+        var generator = new UlidGenerator(fixedClock);
+
+        var first = generator.nextId();
+        var second = generator.nextId();
+
+        assertEquals(first.substring(0, TIME_LENGTH), second.substring(0, TIME_LENGTH));
+        assertTrue(second.compareTo(first) > 0);
+    }
+
+    @Test
+    void sortsByTimeAcrossMilliseconds() {
+        var clock = new MutableClock(NOW);
+        var generator = new UlidGenerator(clock);
+
+        var first = generator.nextId();
+        clock.add(1);
+        var second = generator.nextId();
+
+        assertTrue(second.substring(0, TIME_LENGTH).compareTo(first.substring(0, TIME_LENGTH)) > 0);
+    }
+
+    @Test
+    void staysMonotonicWhenTheClockGoesBackwards() {
+        var clock = new MutableClock(NOW);
+        var generator = new UlidGenerator(clock);
+
+        var before = generator.nextId();
+        clock.add(-1_000);
+        var after = generator.nextId();
+
+        assertTrue(after.compareTo(before) > 0);
+        assertEquals(before.substring(0, TIME_LENGTH), after.substring(0, TIME_LENGTH));
+    }
+
+    @Test
+    void staysMonotonicAndUniqueUnderContention() throws Exception {
+        IdGeneratorContention.assertMonotonicAndUnique(new UlidGenerator(fixedClock), 8, 10_000);
+    }
+
+}
@@ -0,0 +1,155 @@
+package br.com.microservices.choreography.sagacore.core.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyFilterTest {
+
+    private static final long EXPECTED_INSERTIONS = 4;
+    private static final int RECENT_CAPACITY = 2;
+    private static final long REFRESH_MARGIN_MS = 60_000;
+
+    private static final BooleanSupplier NO_LOOKUP = () -> {
+        throw new AssertionError("The database should not be queried");
+    };
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<LocalDateTime> refreshedSince = new ArrayList<>();
+    private final List<String> storedSagaKeys = new ArrayList<>();
+    private final IdempotencyFilter filter = new IdempotencyFilter(
+            since -> {
+                refreshedSince.add(since);
+                return storedSagaKeys.stream();
+            },
+            new TransactionTemplate(new NoOpTransactionManager()),
+            meterRegistry,
+            EXPECTED_INSERTIONS,
+            0.01,
+            RECENT_CAPACITY,
+            REFRESH_MARGIN_MS
+    );
+
+    @Test
+    void answersNewSagasWithoutTheDatabase() {
+        assertFalse(filter.isProcessed("order-1", "tx-1", NO_LOOKUP));
+        assertFalse(filter.mightBeProcessed("order-1", "tx-1"));
+        assertEquals(1, lookups("new"));
+    }
+
+    @Test
+    void answersRecentlyProcessedSagasFromTheCache() {
+        filter.markProcessed("order-1", "tx-1");
+
+        assertTrue(filter.isProcessed("order-1", "tx-1", NO_LOOKUP));
+        assertFalse(filter.isProcessed("order-1", "tx-2", NO_LOOKUP));
+        assertEquals(1, lookups("duplicate"));
+    }
+
+    @Test
+    void fallsBackToTheDatabaseOnceEvictedFromTheCache() {
+        filter.markProcessed("order-1", "tx-1");
+        filter.markProcessed("order-2", "tx-2");
+        filter.markProcessed("order-3", "tx-3");
+
+        assertTrue(filter.isProcessed("order-1", "tx-1", () -> true));
+        assertEquals(1, lookups("database"));
+
+        // The database answer is cached, so the next redelivery does not query it again.
+        assertTrue(filter.isProcessed("order-1", "tx-1", NO_LOOKUP));
+    }
+
+    @Test
+    void countsFalsePositivesTheDatabaseRejects() {
+        filter.markProcessed("order-1", "tx-1");
+        filter.markProcessed("order-2", "tx-2");
+        filter.markProcessed("order-3", "tx-3");
+
+        assertFalse(filter.isProcessed("order-1", "tx-1", () -> false));
+        assertEquals(1, meterRegistry.counter("saga.idempotency.false-positives").count());
+        assertFalse(filter.isProcessed("order-1", "tx-1", () -> false));
+        assertEquals(2, lookups("database"));
+    }
+
+    @Test
+    void keepsThePreviousGenerationAfterARotation() {
+        for (var index = 1; index <= EXPECTED_INSERTIONS; index++) {
+            filter.markProcessed("order-" + index, "tx-" + index);
+        }
+
+        assertEquals(1, meterRegistry.counter("saga.idempotency.rotations").count());
+        for (var index = 1; index <= EXPECTED_INSERTIONS; index++) {
+            assertTrue(filter.mightBeProcessed("order-" + index, "tx-" + index));
+        }
+    }
+
+    @Test
+    void forgetsSagasTwoGenerationsOld() {
+        for (var index = 1; index <= 2 * EXPECTED_INSERTIONS; index++) {
+            filter.markProcessed("order-" + index, "tx-" + index);
+        }
+
+        assertEquals(2, meterRegistry.counter("saga.idempotency.rotations").count());
+        for (var index = 1; index <= EXPECTED_INSERTIONS; index++) {
+            assertFalse(filter.mightBeProcessed("order-" + index, "tx-" + index));
+        }
+        assertTrue(filter.mightBeProcessed("order-8", "tx-8"));
+    }
+
+    @Test
+    void warmsUpFromTheRepositoryOnPartitionAssignment() {
+        storedSagaKeys.add("order-1:tx-1");
+
+        filter.onPartitionsAssigned(null, List.of());
+
+        assertTrue(filter.mightBeProcessed("order-1", "tx-1"));
+        // Warmed keys are not in the cache, so the database still confirms them.
+        assertTrue(filter.isProcessed("order-1", "tx-1", () -> true));
+        assertEquals(1, lookups("database"));
+    }
+
+    @Test
+    void refreshesOnlySinceTheLastWarmUpMinusTheMargin() {
+        var before = LocalDateTime.now();
+        filter.refresh();
+        filter.refresh();
+
+        assertEquals(2, refreshedSince.size());
+        assertTrue(refreshedSince.get(0).isBefore(LocalDateTime.of(1970, 1, 1, 0, 0)));
+        assertFalse(refreshedSince.get(1).isBefore(before.minusNanos(REFRESH_MARGIN_MS * 1_000_000)));
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.counter("saga.idempotency.lookups", "result", result).count();
+    }
+
+    private static class NoOpTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+
+    }
+
+}
@@ -0,0 +1,108 @@
+package br.com.microservices.choreography.sagacore.core.timeout;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+
+    private static final long TICK_MS = 10;
+    private static final int WHEEL_SIZE = 8;
+
+    private final HashedTimingWheel wheel = new HashedTimingWheel(TICK_MS, WHEEL_SIZE, 0);
+    private final List<String> expired = new ArrayList<>();
+
+    @Test
+    void expiresKeyOnceItsDeadlineTickIsReached() {
+        wheel.schedule("order-1", 35);
+
+        wheel.advance(30, expired::add);
+        assertTrue(expired.isEmpty());
+
+        wheel.advance(40, expired::add);
+        assertEquals(List.of("order-1"), expired);
+        assertEquals(0, wheel.size());
+
+        wheel.advance(200, expired::add);
+        assertEquals(List.of("order-1"), expired);
+    }
+
+    @Test
+    void keepsDeadlinesBeyondOneRotationForTheRemainingRounds() {
+        wheel.schedule("order-1", 250);
+
+        wheel.advance(240, expired::add);
+        assertTrue(expired.isEmpty());
+
+        wheel.advance(250, expired::add);
+        assertEquals(List.of("order-1"), expired);
+    }
+
+    @Test
+    void expiresPastDeadlinesOnTheNextTick() {
+        wheel.advance(100, expired::add);
+        wheel.schedule("order-1", 20);
+
+        wheel.advance(110, expired::add);
+        assertEquals(List.of("order-1"), expired);
+    }
+
+    @Test
+    void cancelledKeysNeverExpire() {
+        wheel.schedule("order-1", 20);
+        wheel.schedule("order-2", 20);
+
+        assertTrue(wheel.cancel("order-1"));
+        assertFalse(wheel.cancel("order-1"));
+        assertEquals(1, wheel.size());
+
+        wheel.advance(100, expired::add);
+        assertEquals(List.of("order-2"), expired);
+    }
+
+    @Test
+    void cancelAfterTheKeyIsInABucketUnlinksIt() {
+        wheel.schedule("order-1", 50);
+        wheel.advance(10, expired::add);
+
+        assertTrue(wheel.cancel("order-1"));
+        wheel.advance(100, expired::add);
+
+        assertTrue(expired.isEmpty());
+    }
+
+    @Test
+    void schedulingAKeyAgainReplacesItsDeadline() {
+        wheel.schedule("order-1", 20);
+        wheel.schedule("order-1", 60);
+        assertEquals(1, wheel.size());
+
+        wheel.advance(50, expired::add);
+        assertTrue(expired.isEmpty());
+
+        wheel.advance(60, expired::add);
+        assertEquals(List.of("order-1"), expired);
+    }
+
+    @Test
+    void roundsTheWheelSizeUpToAPowerOfTwo() {
+        var wheel = new HashedTimingWheel(TICK_MS, 5, 0);
+        wheel.schedule("order-1", 70);
+
+        wheel.advance(60, expired::add);
+        assertTrue(expired.isEmpty());
+
+        wheel.advance(70, expired::add);
+        assertEquals(List.of("order-1"), expired);
+    }
+
+    @Test
+    void rejectsNonPositiveTickOrSize() {
+        assertThrows(IllegalArgumentException.class, () -> new HashedTimingWheel(0, WHEEL_SIZE, 0));
+        assertThrows(IllegalArgumentException.class, () -> new HashedTimingWheel(TICK_MS, 0, 0));
+    }
+
+}